@@ -0,0 +1,33 @@
+package com.n2nlab.camel.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, so every result reports the allocation rate next to
+ * the time per exchange.
+ * <p>
+ * Accepts the regular JMH command line options, for example a benchmark name pattern or
+ * {@code -p bodySize=64} to select parameters.
+ *
+ * @author Mahmoud Ahmed at N2NLab
+ * @version 1.0
+ * @since 2025-01-22
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+        // Prevent instantiation
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,104 @@
+package com.n2nlab.camel.benchmarks;
+
+import org.apache.camel.AsyncProducer;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Endpoint;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-exchange overhead of {@code PythonN2NProducer.process} for small and large bodies, with and
+ * without {@code requiredModules}, in each execution mode.
+ * <p>
+ * The producer is called directly, without a route, and waits for the script to complete. The
+ * contended benchmark runs more threads than the endpoint runs scripts or workers at a time.
+ *
+ * @author Mahmoud Ahmed at N2NLab
+ * @version 1.0
+ * @since 2025-01-22
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PythonN2NProducerBenchmark {
+
+    private static final String SCRIPT = "result = len(body)";
+    private static final String REQUIRED_MODULES = "json,decimal,datetime";
+
+    @Param({"64", "1048576"})
+    private int bodySize;
+
+    @Param({"false", "true"})
+    private boolean requiredModules;
+
+    @Param({"PROCESS", "WORKER_POOL", "ZYGOTE"})
+    private String executionMode;
+
+    private CamelContext context;
+    private Endpoint endpoint;
+    private AsyncProducer producer;
+    private String body;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = new DefaultCamelContext();
+        context.start();
+
+        StringBuilder uri = new StringBuilder("pythonN2N:benchmark?maxConcurrentScripts=4&maxWorkers=4")
+                .append("&executionMode=").append(executionMode)
+                .append("&pythonScript=RAW(").append(SCRIPT).append(")");
+        if (requiredModules) {
+            uri.append("&requiredModules=").append(REQUIRED_MODULES);
+        }
+        endpoint = context.getEndpoint(uri.toString());
+        producer = endpoint.createAsyncProducer();
+        producer.start();
+        body = "x".repeat(bodySize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        producer.stop();
+        context.stop();
+    }
+
+    @Benchmark
+    public Object process() throws Exception {
+        return run();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object processContended() throws Exception {
+        return run();
+    }
+
+    private Object run() throws Exception {
+        Exchange exchange = endpoint.createExchange();
+        exchange.getMessage().setBody(body);
+        producer.process(exchange);
+        if (exchange.getException() != null) {
+            throw exchange.getException();
+        }
+        return exchange.getMessage().getBody();
+    }
+}
@@ -0,0 +1,122 @@
+package com.n2nlab.camel.benchmarks;
+
+import com.n2nlab.ruby.RubyScriptRegistry;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Endpoint;
+import org.apache.camel.Exchange;
+import org.apache.camel.Producer;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-exchange overhead of {@code RubyProducer.process} for each way of providing the script.
+ * <p>
+ * The producer is called directly, without a route, so the measurement covers acquiring a Ruby
+ * runtime, binding the exchange and running the script. The contended benchmark runs more threads
+ * than the endpoint has runtimes.
+ *
+ * @author Mahmoud Ahmed at N2NLab
+ * @version 1.0
+ * @since 2025-01-22
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+// JRuby needs access to the JDK IO internals for native stream support
+@Fork(value = 1, jvmArgsAppend = {"--add-opens=java.base/sun.nio.ch=ALL-UNNAMED", "--add-opens=java.base/java.io=ALL-UNNAMED"})
+public class RubyProducerBenchmark {
+
+    private static final String SCRIPT = "$body.to_s.upcase";
+    private static final String SCRIPT_ID = "benchmark";
+
+    public enum ScriptSource {
+        INLINE, SCRIPT_PATH, SCRIPT_ID, ENCODED
+    }
+
+    @Param
+    private ScriptSource scriptSource;
+
+    @Param({"false", "true"})
+    private boolean cacheScript;
+
+    private CamelContext context;
+    private Endpoint endpoint;
+    private Producer producer;
+    private Path scriptFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = new DefaultCamelContext();
+        context.start();
+
+        String source = switch (scriptSource) {
+            case INLINE -> "rubyScript=RAW(" + SCRIPT + ")";
+            case SCRIPT_PATH -> {
+                scriptFile = Files.createTempFile("benchmark", ".rb");
+                Files.writeString(scriptFile, SCRIPT);
+                yield "scriptPath=" + scriptFile.toAbsolutePath();
+            }
+            case SCRIPT_ID -> {
+                RubyScriptRegistry.registerScript(SCRIPT_ID, SCRIPT);
+                yield "scriptId=" + SCRIPT_ID;
+            }
+            case ENCODED -> "encodedScript=RAW("
+                    + Base64.getEncoder().encodeToString(SCRIPT.getBytes(StandardCharsets.UTF_8)) + ")";
+        };
+        endpoint = context.getEndpoint("ruby:benchmark?poolSize=4&cacheScript=" + cacheScript + "&" + source);
+        producer = endpoint.createProducer();
+        producer.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        producer.stop();
+        context.stop();
+        RubyScriptRegistry.clearScripts();
+        if (scriptFile != null) {
+            Files.deleteIfExists(scriptFile);
+        }
+    }
+
+    @Benchmark
+    public Object process() throws Exception {
+        return run();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object processContended() throws Exception {
+        return run();
+    }
+
+    private Object run() throws Exception {
+        Exchange exchange = endpoint.createExchange();
+        exchange.getMessage().setBody("hello benchmark");
+        producer.process(exchange);
+        if (exchange.getException() != null) {
+            throw exchange.getException();
+        }
+        return exchange.getMessage().getBody();
+    }
+}
@@ -0,0 +1,93 @@
+package com.n2nlab.camel.python;
+
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.Exchange;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Groups exchanges into batches that are processed by a single script execution.
+ * <p>
+ * A batch is handed over as soon as it holds {@code batchSize} exchanges, or when
+ * {@code batchTimeout} milliseconds have passed since its first exchange arrived.
+ *
+ * @author Mahmoud Ahmed at N2NLab
+ * @version 1.0
+ * @since 2025-01-22
+ */
+class PythonN2NBatcher {
+
+    /**
+     * An exchange waiting in a batch together with the callback that completes it.
+     */
+    record Entry(Exchange exchange, AsyncCallback callback) {
+    }
+
+    private final int batchSize;
+    private final long batchTimeout;
+    private final ScheduledExecutorService scheduler;
+    private final Consumer<List<Entry>> processor;
+    private List<Entry> pending;
+    private ScheduledFuture<?> timeoutTask;
+
+    /**
+     * @param batchSize Maximum number of exchanges per batch
+     * @param batchTimeout Maximum time in milliseconds an exchange waits for its batch to fill up
+     * @param scheduler Scheduler for the batch timeout
+     * @param processor Receives each complete batch
+     */
+    PythonN2NBatcher(int batchSize, long batchTimeout, ScheduledExecutorService scheduler,
+                     Consumer<List<Entry>> processor) {
+        this.batchSize = batchSize;
+        this.batchTimeout = batchTimeout;
+        this.scheduler = scheduler;
+        this.processor = processor;
+        this.pending = new ArrayList<>(batchSize);
+    }
+
+    /**
+     * Add an exchange to the current batch, processing the batch if it is full.
+     */
+    void add(Exchange exchange, AsyncCallback callback) {
+        List<Entry> batch = null;
+        synchronized (this) {
+            pending.add(new Entry(exchange, callback));
+            if (pending.size() >= batchSize) {
+                batch = takePending();
+            } else if (pending.size() == 1) {
+                timeoutTask = scheduler.schedule(this::flush, batchTimeout, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (batch != null) {
+            processor.accept(batch);
+        }
+    }
+
+    /**
+     * Process the current batch now, however many exchanges it holds.
+     */
+    void flush() {
+        List<Entry> batch;
+        synchronized (this) {
+            batch = takePending();
+        }
+        if (!batch.isEmpty()) {
+            processor.accept(batch);
+        }
+    }
+
+    private List<Entry> takePending() {
+        if (timeoutTask != null) {
+            timeoutTask.cancel(false);
+            timeoutTask = null;
+        }
+        List<Entry> batch = pending;
+        pending = new ArrayList<>(batchSize);
+        return batch;
+    }
+}
@@ -1,11 +1,25 @@
 package com.n2nlab.camel.python;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.camel.Endpoint;
+import org.apache.camel.spi.Metadata;
 import org.apache.camel.support.DefaultComponent;
 import org.apache.camel.spi.annotations.Component;
+import org.apache.camel.util.FileUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.EnumMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 /**
  * PythonN2N component for executing Python scripts within Camel routes.
@@ -16,14 +30,37 @@ import java.util.Map;
  */
 @Component("pythonN2N")
 public class PythonN2NComponent extends DefaultComponent {
+    private static final Logger LOG = LoggerFactory.getLogger(PythonN2NComponent.class);
+
+    @Metadata(label = "advanced", description = "Executor shared by all endpoints of this component to run scripts, "
+            + "which caps the number of concurrent scripts across the component")
+    private ExecutorService executorService;
+
+    private final Map<PythonN2NDataFormat, ObjectMapper> objectMappers = new EnumMap<>(PythonN2NDataFormat.class);
+    private final PythonN2NInterpreters interpreters = new PythonN2NInterpreters();
+    private Path tempDirectory;
+    private boolean keepTempDirectory;
 
     public PythonN2NComponent() {
     }
 
+    /**
+     * Get the mapper shared by all endpoints of this component for a data format. Mappers are
+     * thread-safe and cache serializers, so sharing one avoids rebuilding them per producer.
+     *
+     * @param dataFormat The data format
+     * @return The mapper, created on first use
+     */
+    public synchronized ObjectMapper getObjectMapper(PythonN2NDataFormat dataFormat) {
+        return objectMappers.computeIfAbsent(dataFormat, format -> format.createObjectMapper()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES));
+    }
+
     @Override
     protected Endpoint createEndpoint(String uri, String remaining, Map<String, Object> parameters) throws Exception {
         PythonN2NEndpoint endpoint = new PythonN2NEndpoint(uri, this);
         endpoint.setName(remaining);
+        endpoint.setExecutorService(executorService);
 
         // Get the Python script from parameters
         String pythonScript = (String) parameters.get("pythonScript");
@@ -52,6 +89,57 @@ public class PythonN2NComponent extends DefaultComponent {
     @Override
     protected void doStop() throws Exception {
         super.doStop();
+        interpreters.clear();
+        removeTempDirectory();
+    }
+
+    /**
+     * Get the directory for the wrapper modules and data files of this component. It is created
+     * with a unique name and, where supported, readable and writable by the current user only, as
+     * the interpreters import the wrapper modules from it.
+     *
+     * @return The directory, created on first use
+     * @throws IOException if the directory cannot be created
+     */
+    synchronized Path getTempDirectory() throws IOException {
+        if (tempDirectory == null) {
+            tempDirectory = FileSystems.getDefault().supportedFileAttributeViews().contains("posix")
+                    ? Files.createTempDirectory(PythonN2NConstants.TEMP_DIR_NAME,
+                            PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")))
+                    : Files.createTempDirectory(PythonN2NConstants.TEMP_DIR_NAME);
+            LOG.debug("Created Python temporary directory {}", tempDirectory);
+        }
+        return tempDirectory;
+    }
+
+    /**
+     * Keep the temporary directory when the component stops, for endpoints keeping their files.
+     */
+    synchronized void keepTempDirectory() {
+        keepTempDirectory = true;
+    }
+
+    private synchronized void removeTempDirectory() {
+        if (tempDirectory != null && !keepTempDirectory) {
+            FileUtil.removeDir(tempDirectory.toFile());
+        }
+        tempDirectory = null;
+        keepTempDirectory = false;
+    }
+
+    /**
+     * @return The interpreter checks shared by the endpoints of this component
+     */
+    PythonN2NInterpreters getInterpreters() {
+        return interpreters;
+    }
+
+    public ExecutorService getExecutorService() {
+        return executorService;
+    }
+
+    public void setExecutorService(ExecutorService executorService) {
+        this.executorService = executorService;
     }
 
     @Override
@@ -5,6 +5,8 @@ import org.apache.camel.spi.UriParam;
 import org.apache.camel.spi.UriParams;
 import org.apache.camel.spi.UriPath;
 
+import java.util.concurrent.ExecutorService;
+
 /**
  * Configuration class for PythonN2N endpoint.
  *
@@ -49,6 +51,87 @@ public class PythonN2NConfiguration {
     @UriParam(defaultValue = "false")
     private boolean returnFullOutput = PythonN2NConstants.DEFAULT_RETURN_FULL_OUTPUT;
 
+    @UriParam(defaultValue = "PROCESS")
+    private PythonN2NExecutionMode executionMode = PythonN2NConstants.DEFAULT_EXECUTION_MODE;
+
+    @UriParam(defaultValue = "1")
+    private int minWorkers = PythonN2NConstants.DEFAULT_MIN_WORKERS;
+
+    @UriParam(defaultValue = "4")
+    private int maxWorkers = PythonN2NConstants.DEFAULT_MAX_WORKERS;
+
+    @UriParam(defaultValue = "60000")
+    private long workerIdleTimeout = PythonN2NConstants.DEFAULT_WORKER_IDLE_TIMEOUT;
+
+    @UriParam(defaultValue = "1000")
+    private int maxRequestsPerWorker = PythonN2NConstants.DEFAULT_MAX_REQUESTS_PER_WORKER;
+
+    @UriParam(defaultValue = "PIPE")
+    private PythonN2NTransport transport = PythonN2NConstants.DEFAULT_TRANSPORT;
+
+    @UriParam(defaultValue = "1048576")
+    private int maxOutputSize = PythonN2NConstants.DEFAULT_MAX_OUTPUT_SIZE;
+
+    @UriParam(defaultValue = "10")
+    private int maxConcurrentScripts = PythonN2NConstants.DEFAULT_MAX_CONCURRENT_SCRIPTS;
+
+    @UriParam(defaultValue = "1000")
+    private int maxQueuedScripts = PythonN2NConstants.DEFAULT_MAX_QUEUED_SCRIPTS;
+
+    @UriParam(defaultValue = "BLOCK")
+    private PythonN2NRejectionPolicy rejectionPolicy = PythonN2NConstants.DEFAULT_REJECTION_POLICY;
+
+    @UriParam(label = "advanced")
+    private ExecutorService executorService;
+
+    @UriParam(defaultValue = "false")
+    private boolean useVirtualThreads = PythonN2NConstants.DEFAULT_USE_VIRTUAL_THREADS;
+
+    @UriParam(defaultValue = "1")
+    private int batchSize = PythonN2NConstants.DEFAULT_BATCH_SIZE;
+
+    @UriParam(defaultValue = "100")
+    private long batchTimeoutMs = PythonN2NConstants.DEFAULT_BATCH_TIMEOUT_MS;
+
+    @UriParam(defaultValue = "JSON")
+    private PythonN2NDataFormat dataFormat = PythonN2NConstants.DEFAULT_DATA_FORMAT;
+
+    @UriParam(defaultValue = "1000")
+    private long timeoutGracePeriod = PythonN2NConstants.DEFAULT_TIMEOUT_GRACE_PERIOD;
+
+    @UriParam
+    private Class<?> resultType;
+
+    @UriParam(defaultValue = "false")
+    private boolean streamBody = PythonN2NConstants.DEFAULT_STREAM_BODY;
+
+    @UriParam
+    private String includeHeaders;
+
+    @UriParam
+    private String excludeHeaders;
+
+    @UriParam
+    private String includeProperties;
+
+    @UriParam
+    private String excludeProperties;
+
+    @UriParam(defaultValue = "0")
+    private int resultCacheSize = PythonN2NConstants.DEFAULT_RESULT_CACHE_SIZE;
+
+    @UriParam(defaultValue = "0")
+    private long resultCacheTtl = PythonN2NConstants.DEFAULT_RESULT_CACHE_TTL;
+
+    @UriParam(defaultValue = "0")
+    private long resultCacheMaxBytes = PythonN2NConstants.DEFAULT_RESULT_CACHE_MAX_BYTES;
+
+    @UriParam
+    private String resultCacheHeaders;
+
+    @UriParam(defaultValue = "false")
+    private boolean skipUnreferencedData = PythonN2NConstants.DEFAULT_SKIP_UNREFERENCED_DATA;
+
     // Getters and Setters
     public String getName() {
         return name;
@@ -137,4 +220,220 @@ public class PythonN2NConfiguration {
     public void setReturnFullOutput(boolean returnFullOutput) {
         this.returnFullOutput = returnFullOutput;
     }
-}
\ No newline at end of file
+
+    public PythonN2NExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    public void setExecutionMode(PythonN2NExecutionMode executionMode) {
+        this.executionMode = executionMode;
+    }
+
+    public int getMinWorkers() {
+        return minWorkers;
+    }
+
+    public void setMinWorkers(int minWorkers) {
+        this.minWorkers = minWorkers;
+    }
+
+    public int getMaxWorkers() {
+        return maxWorkers;
+    }
+
+    public void setMaxWorkers(int maxWorkers) {
+        this.maxWorkers = maxWorkers;
+    }
+
+    public long getWorkerIdleTimeout() {
+        return workerIdleTimeout;
+    }
+
+    public void setWorkerIdleTimeout(long workerIdleTimeout) {
+        this.workerIdleTimeout = workerIdleTimeout;
+    }
+
+    public int getMaxRequestsPerWorker() {
+        return maxRequestsPerWorker;
+    }
+
+    public void setMaxRequestsPerWorker(int maxRequestsPerWorker) {
+        this.maxRequestsPerWorker = maxRequestsPerWorker;
+    }
+
+    public PythonN2NTransport getTransport() {
+        return transport;
+    }
+
+    public void setTransport(PythonN2NTransport transport) {
+        this.transport = transport;
+    }
+
+    public int getMaxOutputSize() {
+        return maxOutputSize;
+    }
+
+    public void setMaxOutputSize(int maxOutputSize) {
+        this.maxOutputSize = maxOutputSize;
+    }
+
+    public int getMaxConcurrentScripts() {
+        return maxConcurrentScripts;
+    }
+
+    public void setMaxConcurrentScripts(int maxConcurrentScripts) {
+        this.maxConcurrentScripts = maxConcurrentScripts;
+    }
+
+    public int getMaxQueuedScripts() {
+        return maxQueuedScripts;
+    }
+
+    public void setMaxQueuedScripts(int maxQueuedScripts) {
+        this.maxQueuedScripts = maxQueuedScripts;
+    }
+
+    public PythonN2NRejectionPolicy getRejectionPolicy() {
+        return rejectionPolicy;
+    }
+
+    public void setRejectionPolicy(PythonN2NRejectionPolicy rejectionPolicy) {
+        this.rejectionPolicy = rejectionPolicy;
+    }
+
+    public ExecutorService getExecutorService() {
+        return executorService;
+    }
+
+    public void setExecutorService(ExecutorService executorService) {
+        this.executorService = executorService;
+    }
+
+    public boolean isUseVirtualThreads() {
+        return useVirtualThreads;
+    }
+
+    public void setUseVirtualThreads(boolean useVirtualThreads) {
+        this.useVirtualThreads = useVirtualThreads;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getBatchTimeoutMs() {
+        return batchTimeoutMs;
+    }
+
+    public void setBatchTimeoutMs(long batchTimeoutMs) {
+        this.batchTimeoutMs = batchTimeoutMs;
+    }
+
+    public PythonN2NDataFormat getDataFormat() {
+        return dataFormat;
+    }
+
+    public void setDataFormat(PythonN2NDataFormat dataFormat) {
+        this.dataFormat = dataFormat;
+    }
+
+    public String getIncludeHeaders() {
+        return includeHeaders;
+    }
+
+    public void setIncludeHeaders(String includeHeaders) {
+        this.includeHeaders = includeHeaders;
+    }
+
+    public String getExcludeHeaders() {
+        return excludeHeaders;
+    }
+
+    public void setExcludeHeaders(String excludeHeaders) {
+        this.excludeHeaders = excludeHeaders;
+    }
+
+    public String getIncludeProperties() {
+        return includeProperties;
+    }
+
+    public void setIncludeProperties(String includeProperties) {
+        this.includeProperties = includeProperties;
+    }
+
+    public String getExcludeProperties() {
+        return excludeProperties;
+    }
+
+    public void setExcludeProperties(String excludeProperties) {
+        this.excludeProperties = excludeProperties;
+    }
+
+    public boolean isStreamBody() {
+        return streamBody;
+    }
+
+    public void setStreamBody(boolean streamBody) {
+        this.streamBody = streamBody;
+    }
+
+    public Class<?> getResultType() {
+        return resultType;
+    }
+
+    public void setResultType(Class<?> resultType) {
+        this.resultType = resultType;
+    }
+
+    public long getTimeoutGracePeriod() {
+        return timeoutGracePeriod;
+    }
+
+    public void setTimeoutGracePeriod(long timeoutGracePeriod) {
+        this.timeoutGracePeriod = timeoutGracePeriod;
+    }
+
+    public int getResultCacheSize() {
+        return resultCacheSize;
+    }
+
+    public void setResultCacheSize(int resultCacheSize) {
+        this.resultCacheSize = resultCacheSize;
+    }
+
+    public long getResultCacheTtl() {
+        return resultCacheTtl;
+    }
+
+    public void setResultCacheTtl(long resultCacheTtl) {
+        this.resultCacheTtl = resultCacheTtl;
+    }
+
+    public long getResultCacheMaxBytes() {
+        return resultCacheMaxBytes;
+    }
+
+    public void setResultCacheMaxBytes(long resultCacheMaxBytes) {
+        this.resultCacheMaxBytes = resultCacheMaxBytes;
+    }
+
+    public String getResultCacheHeaders() {
+        return resultCacheHeaders;
+    }
+
+    public void setResultCacheHeaders(String resultCacheHeaders) {
+        this.resultCacheHeaders = resultCacheHeaders;
+    }
+
+    public boolean isSkipUnreferencedData() {
+        return skipUnreferencedData;
+    }
+
+    public void setSkipUnreferencedData(boolean skipUnreferencedData) {
+        this.skipUnreferencedData = skipUnreferencedData;
+    }
+}
@@ -24,6 +24,33 @@ public final class PythonN2NConstants {
     public static final String KEEP_TEMP_FILES = "keepTempFiles";
     public static final String ENCODING = "encoding";
     public static final String RETURN_FULL_OUTPUT = "returnFullOutput";
+    public static final String EXECUTION_MODE = "executionMode";
+    public static final String MIN_WORKERS = "minWorkers";
+    public static final String MAX_WORKERS = "maxWorkers";
+    public static final String WORKER_IDLE_TIMEOUT = "workerIdleTimeout";
+    public static final String MAX_REQUESTS_PER_WORKER = "maxRequestsPerWorker";
+    public static final String TRANSPORT = "transport";
+    public static final String MAX_OUTPUT_SIZE = "maxOutputSize";
+    public static final String MAX_CONCURRENT_SCRIPTS = "maxConcurrentScripts";
+    public static final String MAX_QUEUED_SCRIPTS = "maxQueuedScripts";
+    public static final String REJECTION_POLICY = "rejectionPolicy";
+    public static final String EXECUTOR_SERVICE = "executorService";
+    public static final String USE_VIRTUAL_THREADS = "useVirtualThreads";
+    public static final String BATCH_SIZE = "batchSize";
+    public static final String BATCH_TIMEOUT_MS = "batchTimeoutMs";
+    public static final String DATA_FORMAT = "dataFormat";
+    public static final String TIMEOUT_GRACE_PERIOD = "timeoutGracePeriod";
+    public static final String RESULT_TYPE = "resultType";
+    public static final String STREAM_BODY = "streamBody";
+    public static final String INCLUDE_HEADERS = "includeHeaders";
+    public static final String EXCLUDE_HEADERS = "excludeHeaders";
+    public static final String INCLUDE_PROPERTIES = "includeProperties";
+    public static final String EXCLUDE_PROPERTIES = "excludeProperties";
+    public static final String RESULT_CACHE_SIZE = "resultCacheSize";
+    public static final String RESULT_CACHE_TTL = "resultCacheTtl";
+    public static final String RESULT_CACHE_MAX_BYTES = "resultCacheMaxBytes";
+    public static final String RESULT_CACHE_HEADERS = "resultCacheHeaders";
+    public static final String SKIP_UNREFERENCED_DATA = "skipUnreferencedData";
 
     // Default Values
     public static final int DEFAULT_TIMEOUT = 30000; // 30 seconds
@@ -32,6 +59,26 @@ public final class PythonN2NConstants {
     public static final boolean DEFAULT_KEEP_TEMP_FILES = false;
     public static final boolean DEFAULT_PRELOAD_MODULES = false;
     public static final boolean DEFAULT_RETURN_FULL_OUTPUT = false;
+    public static final PythonN2NExecutionMode DEFAULT_EXECUTION_MODE = PythonN2NExecutionMode.PROCESS;
+    public static final int DEFAULT_MIN_WORKERS = 1;
+    public static final int DEFAULT_MAX_WORKERS = 4;
+    public static final long DEFAULT_WORKER_IDLE_TIMEOUT = 60000; // 1 minute
+    public static final int DEFAULT_MAX_REQUESTS_PER_WORKER = 1000;
+    public static final PythonN2NTransport DEFAULT_TRANSPORT = PythonN2NTransport.PIPE;
+    public static final int DEFAULT_MAX_OUTPUT_SIZE = 1024 * 1024; // 1 MB per stream
+    public static final int DEFAULT_MAX_CONCURRENT_SCRIPTS = 10;
+    public static final int DEFAULT_MAX_QUEUED_SCRIPTS = 1000;
+    public static final PythonN2NRejectionPolicy DEFAULT_REJECTION_POLICY = PythonN2NRejectionPolicy.BLOCK;
+    public static final boolean DEFAULT_USE_VIRTUAL_THREADS = false;
+    public static final int DEFAULT_BATCH_SIZE = 1; // no batching
+    public static final long DEFAULT_BATCH_TIMEOUT_MS = 100;
+    public static final PythonN2NDataFormat DEFAULT_DATA_FORMAT = PythonN2NDataFormat.JSON;
+    public static final boolean DEFAULT_STREAM_BODY = false;
+    public static final long DEFAULT_TIMEOUT_GRACE_PERIOD = 1000;
+    public static final int DEFAULT_RESULT_CACHE_SIZE = 0; // no caching
+    public static final long DEFAULT_RESULT_CACHE_TTL = 0; // no expiry
+    public static final long DEFAULT_RESULT_CACHE_MAX_BYTES = 0; // no size bound
+    public static final boolean DEFAULT_SKIP_UNREFERENCED_DATA = false;
 
     // Environment Variables
     public static final String ENV_PYTHON_HOME = "PYTHON_HOME";
@@ -46,6 +93,15 @@ public final class PythonN2NConstants {
     public static final String TEMP_SCRIPT_PREFIX = "script_";
     public static final String TEMP_DATA_PREFIX = "data_";
     public static final String TEMP_OUTPUT_PREFIX = "output_";
+    public static final String WRAPPER_MODULE_PREFIX = "pythonN2N_";
+
+    // Thread Pools
+    public static final String SCRIPT_THREAD_POOL = "PythonN2NScript";
+    public static final String STREAM_THREAD_POOL = "PythonN2NStream";
+    public static final String BATCH_THREAD_POOL = "PythonN2NBatch";
+
+    // Buffers
+    public static final int STREAM_BUFFER_SIZE = 8192;
 
     // Directory Names
     public static final String TEMP_DIR_NAME = "pythonN2N";
@@ -55,4 +111,11 @@ public final class PythonN2NConstants {
     public static final String ERR_SCRIPT_TIMEOUT = "Python script execution timed out after %d ms";
     public static final String ERR_SCRIPT_EXECUTION = "Python script failed with exit code: %d";
     public static final String ERR_MISSING_MODULES = "Required Python modules are missing: %s";
+    public static final String OUTPUT_TRUNCATED_MARKER = "%n... [output truncated, %d of %d bytes captured]";
+    public static final String ERR_BATCH_RESULT = "Python script must set result to a list of %d items in batch mode";
+    public static final String ERR_BATCH_ITEM = "Python script failed for batch item %d: %s";
+    public static final String ERR_STREAM_BODY_MODE = "streamBody is only supported in PROCESS execution mode without batching";
+    public static final String ERR_RESULT_CACHE_MODE = "resultCacheSize is not supported together with streamBody or batching";
+    public static final String ERR_WORKER_SCRIPT = "Python script failed in worker process:\n%s";
+    public static final String ERR_WORKER_START_TIMEOUT = "Python worker did not start within %d ms";
 }
\ No newline at end of file
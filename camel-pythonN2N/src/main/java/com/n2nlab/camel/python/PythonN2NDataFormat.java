@@ -0,0 +1,78 @@
+package com.n2nlab.camel.python;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+
+/**
+ * Serialization formats for the data exchanged between Java and Python.
+ * <p>
+ * Each format pairs the Jackson mapper used on the Java side with the Python
+ * functions {@code _decode(payload)} and {@code _encode(value)} included in
+ * the generated wrapper and the pooled workers.
+ *
+ * @author Mahmoud Ahmed at N2NLab
+ * @version 1.0
+ * @since 2025-01-22
+ */
+public enum PythonN2NDataFormat {
+
+    /**
+     * JSON text. Needs no extra Python module, but binary bodies are sent as
+     * Base64 strings and numbers as text.
+     */
+    JSON(null, """
+            def _decode(payload):
+                return json.loads(payload)
+
+            def _encode(value):
+                return json.dumps(value).encode('utf-8')
+            """) {
+        @Override
+        ObjectMapper createObjectMapper() {
+            return new ObjectMapper();
+        }
+    },
+
+    /**
+     * MessagePack. Binary bodies arrive in Python as {@code bytes} and numbers
+     * keep their binary representation. Requires the {@code msgpack} Python module.
+     */
+    MSGPACK("msgpack", """
+            import msgpack
+
+            def _decode(payload):
+                return msgpack.unpackb(payload, raw=False)
+
+            def _encode(value):
+                return msgpack.packb(value, use_bin_type=True)
+            """) {
+        @Override
+        ObjectMapper createObjectMapper() {
+            return new ObjectMapper(new MessagePackFactory());
+        }
+    };
+
+    private final String pythonModule;
+    private final String pythonCodec;
+
+    PythonN2NDataFormat(String pythonModule, String pythonCodec) {
+        this.pythonModule = pythonModule;
+        this.pythonCodec = pythonCodec;
+    }
+
+    /**
+     * @return The Python module the format needs besides the standard library, or null
+     */
+    String getPythonModule() {
+        return pythonModule;
+    }
+
+    /**
+     * @return Python source defining {@code _decode} and {@code _encode}
+     */
+    String getPythonCodec() {
+        return pythonCodec;
+    }
+
+    abstract ObjectMapper createObjectMapper();
+}
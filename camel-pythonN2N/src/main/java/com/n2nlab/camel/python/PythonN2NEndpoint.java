@@ -4,10 +4,15 @@ import org.apache.camel.Category;
 import org.apache.camel.Consumer;
 import org.apache.camel.Processor;
 import org.apache.camel.Producer;
+import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedOperation;
+import org.apache.camel.api.management.ManagedResource;
 import org.apache.camel.support.DefaultEndpoint;
 import org.apache.camel.spi.UriEndpoint;
 import org.apache.camel.spi.Metadata;
 
+import java.util.concurrent.ExecutorService;
+
 /**
  * PythonN2N endpoint for executing Python scripts.
  *
@@ -23,11 +28,14 @@ import org.apache.camel.spi.Metadata;
         category = Category.TRANSFORMATION,
         producerOnly = true
 )
+@ManagedResource(description = "Managed PythonN2N endpoint")
 public class PythonN2NEndpoint extends DefaultEndpoint {
 
     @Metadata(description = "The endpoint configuration")
     private final PythonN2NConfiguration configuration;
 
+    private PythonN2NResultCache resultCache;
+
     public PythonN2NEndpoint(String uri, PythonN2NComponent component) {
         super(uri, component);
         this.configuration = new PythonN2NConfiguration();
@@ -48,10 +56,65 @@ public class PythonN2NEndpoint extends DefaultEndpoint {
         return true;
     }
 
+    @Override
+    public PythonN2NComponent getComponent() {
+        return (PythonN2NComponent) super.getComponent();
+    }
+
     public PythonN2NConfiguration getConfiguration() {
         return configuration;
     }
 
+    /**
+     * The result cache shared by the producers of this endpoint.
+     *
+     * @return The cache, or null if {@code resultCacheSize} is 0
+     */
+    synchronized PythonN2NResultCache getResultCache() {
+        if (resultCache == null && getResultCacheSize() > 0) {
+            resultCache = new PythonN2NResultCache(getResultCacheSize(), getResultCacheTtl(), getResultCacheMaxBytes());
+        }
+        return resultCache;
+    }
+
+    @ManagedAttribute(description = "Number of exchanges answered from the result cache")
+    public long getResultCacheHits() {
+        PythonN2NResultCache cache = getResultCache();
+        return cache != null ? cache.getHits() : 0;
+    }
+
+    @ManagedAttribute(description = "Number of exchanges that missed the result cache")
+    public long getResultCacheMisses() {
+        PythonN2NResultCache cache = getResultCache();
+        return cache != null ? cache.getMisses() : 0;
+    }
+
+    @ManagedAttribute(description = "Number of results evicted from the result cache")
+    public long getResultCacheEvictions() {
+        PythonN2NResultCache cache = getResultCache();
+        return cache != null ? cache.getEvictions() : 0;
+    }
+
+    @ManagedAttribute(description = "Number of results in the result cache")
+    public int getResultCacheEntries() {
+        PythonN2NResultCache cache = getResultCache();
+        return cache != null ? cache.size() : 0;
+    }
+
+    @ManagedAttribute(description = "Total size in bytes of the results in the result cache")
+    public long getResultCacheBytes() {
+        PythonN2NResultCache cache = getResultCache();
+        return cache != null ? cache.getBytes() : 0;
+    }
+
+    @ManagedOperation(description = "Remove all results from the result cache")
+    public void clearResultCache() {
+        PythonN2NResultCache cache = getResultCache();
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
     // Delegate methods to configuration
     public void setName(String name) {
         getConfiguration().setName(name);
@@ -136,4 +199,220 @@ public class PythonN2NEndpoint extends DefaultEndpoint {
     public void setReturnFullOutput(boolean returnFullOutput) {
         getConfiguration().setReturnFullOutput(returnFullOutput);
     }
-}
\ No newline at end of file
+
+    public PythonN2NExecutionMode getExecutionMode() {
+        return getConfiguration().getExecutionMode();
+    }
+
+    public void setExecutionMode(PythonN2NExecutionMode executionMode) {
+        getConfiguration().setExecutionMode(executionMode);
+    }
+
+    public int getMinWorkers() {
+        return getConfiguration().getMinWorkers();
+    }
+
+    public void setMinWorkers(int minWorkers) {
+        getConfiguration().setMinWorkers(minWorkers);
+    }
+
+    public int getMaxWorkers() {
+        return getConfiguration().getMaxWorkers();
+    }
+
+    public void setMaxWorkers(int maxWorkers) {
+        getConfiguration().setMaxWorkers(maxWorkers);
+    }
+
+    public long getWorkerIdleTimeout() {
+        return getConfiguration().getWorkerIdleTimeout();
+    }
+
+    public void setWorkerIdleTimeout(long workerIdleTimeout) {
+        getConfiguration().setWorkerIdleTimeout(workerIdleTimeout);
+    }
+
+    public int getMaxRequestsPerWorker() {
+        return getConfiguration().getMaxRequestsPerWorker();
+    }
+
+    public void setMaxRequestsPerWorker(int maxRequestsPerWorker) {
+        getConfiguration().setMaxRequestsPerWorker(maxRequestsPerWorker);
+    }
+
+    public PythonN2NTransport getTransport() {
+        return getConfiguration().getTransport();
+    }
+
+    public void setTransport(PythonN2NTransport transport) {
+        getConfiguration().setTransport(transport);
+    }
+
+    public int getMaxOutputSize() {
+        return getConfiguration().getMaxOutputSize();
+    }
+
+    public void setMaxOutputSize(int maxOutputSize) {
+        getConfiguration().setMaxOutputSize(maxOutputSize);
+    }
+
+    public int getMaxConcurrentScripts() {
+        return getConfiguration().getMaxConcurrentScripts();
+    }
+
+    public void setMaxConcurrentScripts(int maxConcurrentScripts) {
+        getConfiguration().setMaxConcurrentScripts(maxConcurrentScripts);
+    }
+
+    public int getMaxQueuedScripts() {
+        return getConfiguration().getMaxQueuedScripts();
+    }
+
+    public void setMaxQueuedScripts(int maxQueuedScripts) {
+        getConfiguration().setMaxQueuedScripts(maxQueuedScripts);
+    }
+
+    public PythonN2NRejectionPolicy getRejectionPolicy() {
+        return getConfiguration().getRejectionPolicy();
+    }
+
+    public void setRejectionPolicy(PythonN2NRejectionPolicy rejectionPolicy) {
+        getConfiguration().setRejectionPolicy(rejectionPolicy);
+    }
+
+    public ExecutorService getExecutorService() {
+        return getConfiguration().getExecutorService();
+    }
+
+    public void setExecutorService(ExecutorService executorService) {
+        getConfiguration().setExecutorService(executorService);
+    }
+
+    public boolean isUseVirtualThreads() {
+        return getConfiguration().isUseVirtualThreads();
+    }
+
+    public void setUseVirtualThreads(boolean useVirtualThreads) {
+        getConfiguration().setUseVirtualThreads(useVirtualThreads);
+    }
+
+    public int getBatchSize() {
+        return getConfiguration().getBatchSize();
+    }
+
+    public void setBatchSize(int batchSize) {
+        getConfiguration().setBatchSize(batchSize);
+    }
+
+    public long getBatchTimeoutMs() {
+        return getConfiguration().getBatchTimeoutMs();
+    }
+
+    public void setBatchTimeoutMs(long batchTimeoutMs) {
+        getConfiguration().setBatchTimeoutMs(batchTimeoutMs);
+    }
+
+    public PythonN2NDataFormat getDataFormat() {
+        return getConfiguration().getDataFormat();
+    }
+
+    public void setDataFormat(PythonN2NDataFormat dataFormat) {
+        getConfiguration().setDataFormat(dataFormat);
+    }
+
+    public String getIncludeHeaders() {
+        return getConfiguration().getIncludeHeaders();
+    }
+
+    public void setIncludeHeaders(String includeHeaders) {
+        getConfiguration().setIncludeHeaders(includeHeaders);
+    }
+
+    public String getExcludeHeaders() {
+        return getConfiguration().getExcludeHeaders();
+    }
+
+    public void setExcludeHeaders(String excludeHeaders) {
+        getConfiguration().setExcludeHeaders(excludeHeaders);
+    }
+
+    public String getIncludeProperties() {
+        return getConfiguration().getIncludeProperties();
+    }
+
+    public void setIncludeProperties(String includeProperties) {
+        getConfiguration().setIncludeProperties(includeProperties);
+    }
+
+    public String getExcludeProperties() {
+        return getConfiguration().getExcludeProperties();
+    }
+
+    public void setExcludeProperties(String excludeProperties) {
+        getConfiguration().setExcludeProperties(excludeProperties);
+    }
+
+    public boolean isStreamBody() {
+        return getConfiguration().isStreamBody();
+    }
+
+    public void setStreamBody(boolean streamBody) {
+        getConfiguration().setStreamBody(streamBody);
+    }
+
+    public Class<?> getResultType() {
+        return getConfiguration().getResultType();
+    }
+
+    public void setResultType(Class<?> resultType) {
+        getConfiguration().setResultType(resultType);
+    }
+
+    public long getTimeoutGracePeriod() {
+        return getConfiguration().getTimeoutGracePeriod();
+    }
+
+    public void setTimeoutGracePeriod(long timeoutGracePeriod) {
+        getConfiguration().setTimeoutGracePeriod(timeoutGracePeriod);
+    }
+
+    public int getResultCacheSize() {
+        return getConfiguration().getResultCacheSize();
+    }
+
+    public void setResultCacheSize(int resultCacheSize) {
+        getConfiguration().setResultCacheSize(resultCacheSize);
+    }
+
+    public long getResultCacheTtl() {
+        return getConfiguration().getResultCacheTtl();
+    }
+
+    public void setResultCacheTtl(long resultCacheTtl) {
+        getConfiguration().setResultCacheTtl(resultCacheTtl);
+    }
+
+    public long getResultCacheMaxBytes() {
+        return getConfiguration().getResultCacheMaxBytes();
+    }
+
+    public void setResultCacheMaxBytes(long resultCacheMaxBytes) {
+        getConfiguration().setResultCacheMaxBytes(resultCacheMaxBytes);
+    }
+
+    public String getResultCacheHeaders() {
+        return getConfiguration().getResultCacheHeaders();
+    }
+
+    public void setResultCacheHeaders(String resultCacheHeaders) {
+        getConfiguration().setResultCacheHeaders(resultCacheHeaders);
+    }
+
+    public boolean isSkipUnreferencedData() {
+        return getConfiguration().isSkipUnreferencedData();
+    }
+
+    public void setSkipUnreferencedData(boolean skipUnreferencedData) {
+        getConfiguration().setSkipUnreferencedData(skipUnreferencedData);
+    }
+}
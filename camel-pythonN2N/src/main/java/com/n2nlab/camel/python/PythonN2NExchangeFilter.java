@@ -0,0 +1,87 @@
+package com.n2nlab.camel.python;
+
+import org.apache.camel.support.PatternHelper;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Selects the headers and properties of an exchange that are sent to Python.
+ * <p>
+ * Names are matched against comma-separated patterns, which can be exact names, wildcards such
+ * as {@code Camel*} or regular expressions. A name is sent when it matches an include pattern,
+ * or when there are none, and matches no exclude pattern.
+ * <p>
+ * With {@code skipUnreferencedData}, headers or properties whose name the script and the template
+ * never mention are not sent at all. This is a textual check, so scripts that reach them
+ * indirectly, for example through {@code globals()} or an imported module, must not enable it.
+ *
+ * @author Mahmoud Ahmed at N2NLab
+ * @version 1.0
+ * @since 2025-01-22
+ */
+class PythonN2NExchangeFilter {
+    private static final Pattern HEADERS_REFERENCE = Pattern.compile("\\bheaders\\b");
+    private static final Pattern PROPERTIES_REFERENCE = Pattern.compile("\\bproperties\\b");
+
+    private final boolean sendHeaders;
+    private final boolean sendProperties;
+    private final String[] includeHeaders;
+    private final String[] excludeHeaders;
+    private final String[] includeProperties;
+    private final String[] excludeProperties;
+
+    PythonN2NExchangeFilter(PythonN2NEndpoint endpoint) {
+        String source = nullToEmpty(endpoint.getScriptTemplate()) + "\n" + nullToEmpty(endpoint.getPythonScript());
+        boolean skipUnreferenced = endpoint.isSkipUnreferencedData();
+        this.sendHeaders = !skipUnreferenced || HEADERS_REFERENCE.matcher(source).find();
+        this.sendProperties = !skipUnreferenced || PROPERTIES_REFERENCE.matcher(source).find();
+        this.includeHeaders = split(endpoint.getIncludeHeaders());
+        this.excludeHeaders = split(endpoint.getExcludeHeaders());
+        this.includeProperties = split(endpoint.getIncludeProperties());
+        this.excludeProperties = split(endpoint.getExcludeProperties());
+    }
+
+    Map<String, Object> filterHeaders(Map<String, Object> headers) {
+        return sendHeaders ? filter(headers, includeHeaders, excludeHeaders) : Collections.emptyMap();
+    }
+
+    Map<String, Object> filterProperties(Map<String, Object> properties) {
+        return sendProperties ? filter(properties, includeProperties, excludeProperties) : Collections.emptyMap();
+    }
+
+    private static Map<String, Object> filter(Map<String, Object> values, String[] includes, String[] excludes) {
+        if (includes.length == 0 && excludes.length == 0) {
+            return values;
+        }
+        Map<String, Object> filtered = new LinkedHashMap<>();
+        values.forEach((name, value) -> {
+            if ((includes.length == 0 || matches(name, includes)) && !matches(name, excludes)) {
+                filtered.put(name, value);
+            }
+        });
+        return filtered;
+    }
+
+    private static boolean matches(String name, String[] patterns) {
+        for (String pattern : patterns) {
+            if (PatternHelper.matchPattern(name, pattern)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String[] split(String patterns) {
+        if (patterns == null || patterns.isBlank()) {
+            return new String[0];
+        }
+        return patterns.trim().split("\\s*,\\s*");
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
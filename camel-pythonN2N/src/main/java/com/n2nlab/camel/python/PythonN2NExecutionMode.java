@@ -0,0 +1,31 @@
+package com.n2nlab.camel.python;
+
+/**
+ * Strategies for running the Python script of a PythonN2N endpoint.
+ *
+ * @author Mahmoud Ahmed at N2NLab
+ * @version 1.0
+ * @since 2025-01-22
+ */
+public enum PythonN2NExecutionMode {
+
+    /**
+     * Start a new Python interpreter for every exchange.
+     */
+    PROCESS,
+
+    /**
+     * Keep a pool of long-lived Python interpreters that load the script and
+     * the required modules once and then serve exchanges over stdin/stdout.
+     */
+    WORKER_POOL,
+
+    /**
+     * Keep a pool of long-lived Python interpreters that load the script and
+     * the required modules once, and fork a fresh child process from them for
+     * every exchange. Each exchange is isolated like in {@link #PROCESS} mode,
+     * at the cost of a fork instead of an interpreter start. Requires a
+     * platform with {@code os.fork()}.
+     */
+    ZYGOTE
+}
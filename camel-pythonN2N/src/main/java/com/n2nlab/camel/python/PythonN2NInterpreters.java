@@ -0,0 +1,171 @@
+package com.n2nlab.camel.python;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves and validates Python interpreters once per component.
+ * <p>
+ * Finding the default interpreter, probing its version and checking modules each start a Python
+ * process. The outcome, including a failure, is cached per executable and per set of modules, so
+ * endpoints sharing an interpreter do not repeat the checks when their routes start. Concurrent
+ * callers asking for the same check wait for a single probe.
+ *
+ * @author Mahmoud Ahmed at N2NLab
+ * @version 1.0
+ * @since 2025-01-22
+ */
+class PythonN2NInterpreters {
+    private static final Logger LOG = LoggerFactory.getLogger(PythonN2NInterpreters.class);
+
+    private final Map<String, CompletableFuture<String>> probes = new ConcurrentHashMap<>();
+    private final AtomicInteger probeCount = new AtomicInteger();
+    private volatile String defaultExecutable;
+
+    /**
+     * Resolve the interpreter to use.
+     *
+     * @param customPath The interpreter configured on the endpoint, or null for the default
+     * @return The configured interpreter, or the default one found on this machine
+     */
+    String resolveExecutable(String customPath) {
+        if (customPath != null && !customPath.isEmpty()) {
+            return customPath;
+        }
+        String executable = defaultExecutable;
+        if (executable == null) {
+            synchronized (this) {
+                if (defaultExecutable == null) {
+                    defaultExecutable = findDefaultExecutable();
+                }
+                executable = defaultExecutable;
+            }
+        }
+        return executable;
+    }
+
+    private String findDefaultExecutable() {
+        String osName = System.getProperty("os.name").toLowerCase();
+        if (osName.contains("windows")) {
+            return System.getenv().getOrDefault(PythonN2NConstants.ENV_PYTHON_HOME,
+                    isPythonAvailable("python3.exe") ? "python3.exe" : "python.exe");
+        }
+        return System.getenv().getOrDefault(PythonN2NConstants.ENV_PYTHON_HOME,
+                isPythonAvailable("python3") ? "python3" : "python");
+    }
+
+    private boolean isPythonAvailable(String command) {
+        return probe("--version:" + command, command, "--version") != null;
+    }
+
+    /**
+     * Check that the interpreter runs.
+     *
+     * @param executable The interpreter
+     * @return The version reported by the interpreter
+     * @throws IllegalStateException if the interpreter cannot be started
+     */
+    String verifyInstallation(String executable) {
+        String version = probe("--version:" + executable, executable, "--version");
+        if (version == null) {
+            throw new IllegalStateException(PythonN2NConstants.ERR_PYTHON_NOT_FOUND);
+        }
+        return version;
+    }
+
+    /**
+     * Check that the interpreter can import the given modules.
+     *
+     * @param executable The interpreter
+     * @param modules Comma-separated module names
+     * @throws IllegalStateException if a module is missing
+     */
+    void verifyModules(String executable, String modules) {
+        String[] names = Arrays.stream(modules.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .sorted()
+                .distinct()
+                .toArray(String[]::new);
+        String key = "modules:" + executable + ":" + String.join(",", names);
+        if (probe(key, executable, "-c", createModuleVerificationScript(names)) == null) {
+            throw new IllegalStateException(String.format(PythonN2NConstants.ERR_MISSING_MODULES, modules));
+        }
+    }
+
+    private static String createModuleVerificationScript(String[] modules) {
+        return Arrays.stream(modules).map(module -> "import " + module).collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * Run a command once per key and cache its output, or null if it failed.
+     */
+    private String probe(String key, String... command) {
+        CompletableFuture<String> probe = new CompletableFuture<>();
+        CompletableFuture<String> existing = probes.putIfAbsent(key, probe);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        probeCount.incrementAndGet();
+        try {
+            String output = run(command);
+            probe.complete(output);
+            return output;
+        } catch (RuntimeException | Error e) {
+            // Let waiting callers fail too, and let the next caller probe again
+            probes.remove(key, probe);
+            probe.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static String run(String... command) {
+        try {
+            Process process = new ProcessBuilder(command)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+            String output;
+            try (InputStream stdout = process.getInputStream()) {
+                output = new String(stdout.readAllBytes(), StandardCharsets.UTF_8).trim();
+            }
+            if (process.waitFor() != 0) {
+                return null;
+            }
+            LOG.debug("Python probe {} succeeded: {}", command[command.length - 1], output);
+            return output;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Forget all cached results, so the next start probes the interpreters again.
+     */
+    void clear() {
+        probes.clear();
+        defaultExecutable = null;
+    }
+
+    int getProbeCount() {
+        return probeCount.get();
+    }
+}
@@ -0,0 +1,58 @@
+package com.n2nlab.camel.python;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Terminates Python processes together with everything they started.
+ *
+ * @author Mahmoud Ahmed at N2NLab
+ * @version 1.0
+ * @since 2025-01-22
+ */
+final class PythonN2NProcesses {
+    private static final Logger LOG = LoggerFactory.getLogger(PythonN2NProcesses.class);
+
+    private PythonN2NProcesses() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Ask a process and all of its descendants to terminate, and kill whatever is still alive
+     * after the grace period. The descendants are collected first, since they can no longer be
+     * found once the process is gone.
+     *
+     * @param process The process to terminate
+     * @param gracePeriod Milliseconds to wait before killing the processes, 0 to kill them at once
+     * @return A future completed when every process of the tree has exited
+     */
+    static CompletableFuture<Void> destroyTree(Process process, long gracePeriod) {
+        List<ProcessHandle> descendants = process.descendants().collect(Collectors.toList());
+        if (gracePeriod <= 0) {
+            descendants.forEach(ProcessHandle::destroyForcibly);
+            process.destroyForcibly();
+        } else {
+            descendants.forEach(ProcessHandle::destroy);
+            // Destroying through the Process also closes its streams, releasing their readers
+            process.destroy();
+        }
+
+        CompletableFuture<?>[] exits = Stream.concat(descendants.stream(), Stream.of(process.toHandle()))
+                .map(ProcessHandle::onExit)
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(exits)
+                .orTimeout(Math.max(gracePeriod, 1), TimeUnit.MILLISECONDS)
+                .exceptionallyCompose(error -> {
+                    LOG.debug("Killing Python process {} that did not exit within {} ms", process.pid(), gracePeriod);
+                    descendants.forEach(ProcessHandle::destroyForcibly);
+                    process.destroyForcibly();
+                    return CompletableFuture.allOf(exits);
+                });
+    }
+}
@@ -1,19 +1,47 @@
 package com.n2nlab.camel.python;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.n2nlab.camel.python.exception.PythonN2NException;
+import com.n2nlab.camel.python.exception.PythonScriptTimeoutException;
+import com.n2nlab.camel.python.model.PythonN2NBatchData;
 import com.n2nlab.camel.python.model.PythonN2NExchangeData;
 import com.n2nlab.camel.python.model.PythonN2NProcessResult;
 import com.n2nlab.camel.python.model.PythonN2NResult;
+import org.apache.camel.AsyncCallback;
 import org.apache.camel.Exchange;
-import org.apache.camel.support.DefaultProducer;
+import org.apache.camel.NoTypeConversionAvailableException;
+import org.apache.camel.StreamCache;
+import org.apache.camel.WrappedFile;
+import org.apache.camel.builder.ThreadPoolProfileBuilder;
+import org.apache.camel.spi.ExecutorServiceManager;
+import org.apache.camel.spi.ThreadPoolProfile;
+import org.apache.camel.converter.stream.CachedOutputStream;
+import org.apache.camel.support.DefaultAsyncProducer;
+import org.apache.camel.util.IOHelper;
+import org.apache.camel.util.concurrent.ThreadPoolRejectedPolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.DataOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 /**
  * The PythonN2N producer.
@@ -22,139 +50,589 @@ import java.util.concurrent.atomic.AtomicInteger;
  * @version 1.0
  * @since 2025-01-22
  */
-public class PythonN2NProducer extends DefaultProducer {
+public class PythonN2NProducer extends DefaultAsyncProducer {
     private static final Logger LOG = LoggerFactory.getLogger(PythonN2NProducer.class);
 
     private final PythonN2NEndpoint endpoint;
     private final ObjectMapper objectMapper;
+    private ObjectWriter exchangeWriter;
+    private ObjectWriter batchWriter;
+    private PythonN2NResultParser resultParser;
+    private PythonN2NResultParser batchResultParser;
     private final AtomicInteger scriptCounter;
     private final String pythonExecutable;
-    private final Path tempDir;
-    private ExecutorService executorService;
+    private Path tempDir;
+    private PythonN2NWrapperScript wrapperScript;
+    private ExecutorService scriptExecutor;
+    private Executor scriptRunner;
+    private boolean shutdownScriptExecutor;
+    private ExecutorService streamExecutor;
+    private ScheduledExecutorService workerScheduler;
+    private ScheduledExecutorService batchScheduler;
+    private PythonN2NBatcher batcher;
+    private PythonN2NExchangeFilter exchangeFilter;
+    private PythonN2NWorkerPool workerPool;
+    private PythonN2NResultCache resultCache;
+    private List<String> resultCacheHeaders;
+    // Set while a batch is handed to the script executor, see getBlockTimeout()
+    private final ThreadLocal<Boolean> submittingBatch = ThreadLocal.withInitial(() -> false);
 
     public PythonN2NProducer(PythonN2NEndpoint endpoint) {
         super(endpoint);
         this.endpoint = endpoint;
-        this.objectMapper = new ObjectMapper();
+        this.objectMapper = endpoint.getComponent().getObjectMapper(endpoint.getDataFormat());
         this.scriptCounter = new AtomicInteger();
-        this.pythonExecutable = determinePythonExecutable();
-        this.tempDir = Paths.get(System.getProperty("java.io.tmpdir"), PythonN2NConstants.TEMP_DIR_NAME);
+        this.pythonExecutable = endpoint.getComponent().getInterpreters().resolveExecutable(endpoint.getPythonPath());
     }
 
-    private String determinePythonExecutable() {
-        String customPath = endpoint.getPythonPath();
-        if (customPath != null && !customPath.isEmpty()) {
-            return customPath;
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+        tempDir = endpoint.getComponent().getTempDirectory();
+        if (endpoint.isKeepTempFiles()) {
+            endpoint.getComponent().keepTempDirectory();
+        }
+        if (endpoint.isStreamBody()
+                && (endpoint.getExecutionMode() != PythonN2NExecutionMode.PROCESS || endpoint.getBatchSize() > 1)) {
+            throw new IllegalArgumentException(PythonN2NConstants.ERR_STREAM_BODY_MODE);
+        }
+        if (endpoint.getResultCacheSize() > 0 && (endpoint.isStreamBody() || endpoint.getBatchSize() > 1)) {
+            throw new IllegalArgumentException(PythonN2NConstants.ERR_RESULT_CACHE_MODE);
+        }
+        resultCache = endpoint.getResultCache();
+        resultCacheHeaders = splitList(endpoint.getResultCacheHeaders());
+        startExecutors();
+        exchangeFilter = new PythonN2NExchangeFilter(endpoint);
+        createReadersAndWriters();
+
+        // The checks run once per interpreter and set of modules across the component
+        PythonN2NInterpreters interpreters = endpoint.getComponent().getInterpreters();
+        String requiredModules = endpoint.getRequiredModules();
+        if (endpoint.isPreloadPythonModules() && requiredModules != null && !requiredModules.isEmpty()) {
+            interpreters.verifyModules(pythonExecutable, requiredModules);
+        }
+
+        interpreters.verifyInstallation(pythonExecutable);
+
+        // Fail fast instead of on every exchange if the data format needs a missing module
+        if (endpoint.getDataFormat().getPythonModule() != null) {
+            interpreters.verifyModules(pythonExecutable, endpoint.getDataFormat().getPythonModule());
+        }
+
+        if (endpoint.getExecutionMode() != PythonN2NExecutionMode.PROCESS) {
+            startWorkerPool();
+        } else {
+            wrapperScript = new PythonN2NWrapperScript(buildWrapperScript(), tempDir,
+                    Charset.forName(endpoint.getEncoding()));
+            wrapperScript.install();
+        }
+
+        if (endpoint.getBatchSize() > 1) {
+            batchScheduler = getEndpoint().getCamelContext().getExecutorServiceManager()
+                    .newSingleThreadScheduledExecutor(this, PythonN2NConstants.BATCH_THREAD_POOL);
+            batcher = new PythonN2NBatcher(endpoint.getBatchSize(), endpoint.getBatchTimeoutMs(), batchScheduler,
+                    this::processBatch);
+        }
+    }
+
+    /**
+     * Create the writers and result parsers once, so Jackson resolves the serializers and the
+     * deserializers for the configured {@code resultType} only at startup. In batch mode the
+     * result is a list of that type.
+     */
+    private void createReadersAndWriters() {
+        TypeFactory typeFactory = objectMapper.getTypeFactory();
+        Class<?> resultType = endpoint.getResultType();
+        exchangeWriter = objectMapper.writerFor(PythonN2NExchangeData.class);
+        batchWriter = objectMapper.writerFor(PythonN2NBatchData.class);
+        JavaType itemType = typeFactory.constructType(resultType != null ? resultType : Object.class);
+        JavaType batchType = resultType != null ? typeFactory.constructCollectionType(List.class, itemType) : itemType;
+        resultParser = new PythonN2NResultParser(objectMapper, itemType, endpoint.isReturnFullOutput());
+        batchResultParser = new PythonN2NResultParser(objectMapper, batchType, endpoint.isReturnFullOutput());
+    }
+
+    private void startExecutors() {
+        ExecutorServiceManager manager = getEndpoint().getCamelContext().getExecutorServiceManager();
+        ThreadFactory scriptThreads = null;
+        ThreadFactory streamThreads = null;
+        if (endpoint.isUseVirtualThreads()) {
+            scriptThreads = PythonN2NVirtualThreads.newThreadFactory(
+                    manager.resolveThreadName(PythonN2NConstants.SCRIPT_THREAD_POOL));
+            streamThreads = PythonN2NVirtualThreads.newThreadFactory(
+                    manager.resolveThreadName(PythonN2NConstants.STREAM_THREAD_POOL));
+            if (scriptThreads == null) {
+                LOG.warn("Virtual threads require Java 21 or later, using platform threads for pythonN2N:{}",
+                        endpoint.getConfiguration().getName());
+            }
         }
 
-        String osName = System.getProperty("os.name").toLowerCase();
-        if (osName.contains("windows")) {
-            return System.getenv().getOrDefault(PythonN2NConstants.ENV_PYTHON_HOME,
-                    isPythonAvailable("python3.exe") ? "python3.exe" : "python.exe");
+        scriptExecutor = endpoint.getExecutorService();
+        shutdownScriptExecutor = scriptExecutor == null;
+        scriptRunner = scriptExecutor;
+        if (scriptExecutor == null && scriptThreads != null) {
+            // Every script gets its own virtual thread, the limiter bounds the interpreters instead
+            scriptExecutor = manager.getThreadPoolFactory().newCachedThreadPool(scriptThreads);
+            scriptRunner = new PythonN2NScriptLimiter(scriptExecutor, endpoint.getMaxConcurrentScripts(),
+                    endpoint.getMaxQueuedScripts(), endpoint.getRejectionPolicy(), this::getBlockTimeout);
+        } else if (scriptExecutor == null) {
+            scriptExecutor = createScriptExecutor(manager);
+            scriptRunner = scriptExecutor;
+        }
+        streamExecutor = streamThreads != null
+                ? manager.getThreadPoolFactory().newCachedThreadPool(streamThreads)
+                : manager.newCachedThreadPool(this, PythonN2NConstants.STREAM_THREAD_POOL);
+    }
+
+    /**
+     * Create the executor running the scripts of this endpoint. Its thread count bounds the number
+     * of Python interpreters running at the same time.
+     */
+    private ExecutorService createScriptExecutor(ExecutorServiceManager manager) {
+        PythonN2NRejectionPolicy rejectionPolicy = endpoint.getRejectionPolicy();
+        ThreadPoolProfile profile = new ThreadPoolProfileBuilder(PythonN2NConstants.SCRIPT_THREAD_POOL)
+                .poolSize(endpoint.getMaxConcurrentScripts())
+                .maxPoolSize(endpoint.getMaxConcurrentScripts())
+                .maxQueueSize(endpoint.getMaxQueuedScripts())
+                .rejectedPolicy(rejectionPolicy == PythonN2NRejectionPolicy.CALLER_RUNS
+                        ? ThreadPoolRejectedPolicy.CallerRuns : ThreadPoolRejectedPolicy.Abort)
+                .build();
+        ExecutorService executor = manager.newThreadPool(this, PythonN2NConstants.SCRIPT_THREAD_POOL, profile);
+
+        // Camel has no blocking policy, so install one on the underlying pool
+        if (rejectionPolicy == PythonN2NRejectionPolicy.BLOCK && executor instanceof ThreadPoolExecutor threadPool) {
+            threadPool.setRejectedExecutionHandler(this::blockUntilQueued);
         }
-        return System.getenv().getOrDefault(PythonN2NConstants.ENV_PYTHON_HOME,
-                isPythonAvailable("python3") ? "python3" : "python");
+        return executor;
     }
 
-    private boolean isPythonAvailable(String command) {
+    private void blockUntilQueued(Runnable task, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("Python script executor has been shut down");
+        }
+        long timeout = getBlockTimeout();
         try {
-            Process process = new ProcessBuilder(command, "--version")
-                    .redirectError(ProcessBuilder.Redirect.INHERIT)
-                    .start();
-            return process.waitFor() == 0;
-        } catch (Exception e) {
-            return false;
+            if (timeout < 0) {
+                executor.getQueue().put(task);
+            } else if (!executor.getQueue().offer(task, timeout, TimeUnit.MILLISECONDS)) {
+                throw new RejectedExecutionException(String.format(
+                        "No room to queue Python script batch within %d ms", timeout));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting to queue Python script", e);
+        }
+    }
+
+    /**
+     * How long the {@code BLOCK} policy waits for room to queue a script. Batches are handed over
+     * on the single batch thread whenever their timeout expires, so they only wait up to the
+     * script timeout and then fail; blocking that thread would stop every other batch timeout.
+     *
+     * @return The time in milliseconds, or -1 to wait without bound
+     */
+    private long getBlockTimeout() {
+        return submittingBatch.get() ? endpoint.getTimeout() : -1;
+    }
+
+    private boolean isFileTransport() {
+        return endpoint.getTransport() == PythonN2NTransport.FILE || endpoint.isKeepTempFiles() || endpoint.isDebug();
+    }
+
+    private void startWorkerPool() throws Exception {
+        Map<String, Object> init = new LinkedHashMap<>();
+        init.put("modules", parseRequiredModules());
+        init.put("template", endpoint.getScriptTemplate());
+        init.put("script", endpoint.getPythonScript());
+        init.put("codec", endpoint.getDataFormat().getPythonCodec());
+        init.put("debugInfo", endpoint.isReturnFullOutput());
+        init.put("fork", endpoint.getExecutionMode() == PythonN2NExecutionMode.ZYGOTE);
+
+        workerScheduler = getEndpoint().getCamelContext().getExecutorServiceManager()
+                .newSingleThreadScheduledExecutor(this, "PythonN2NWorkerPool");
+        workerPool = new PythonN2NWorkerPool(this::createWorkerProcessBuilder, endpoint.getComponent().getObjectMapper(PythonN2NDataFormat.JSON).writeValueAsBytes(init),
+                endpoint.getMinWorkers(), endpoint.getMaxWorkers(), endpoint.getWorkerIdleTimeout(),
+                endpoint.getMaxRequestsPerWorker(), endpoint.getTimeoutGracePeriod(), endpoint.getTimeout(),
+                workerScheduler, streamExecutor);
+        workerPool.start();
+    }
+
+    private ProcessBuilder createWorkerProcessBuilder() {
+        ProcessBuilder processBuilder = new ProcessBuilder(pythonExecutable, "-c", PythonN2NWorker.WORKER_SCRIPT);
+        configureEnvironment(processBuilder);
+        return processBuilder;
+    }
+
+    PythonN2NWrapperScript getWrapperScript() {
+        return wrapperScript;
+    }
+
+    private List<String> parseRequiredModules() {
+        return splitList(endpoint.getRequiredModules());
+    }
+
+    private static List<String> splitList(String value) {
+        List<String> items = new ArrayList<>();
+        if (value != null) {
+            for (String item : value.split(",")) {
+                if (!item.isBlank()) {
+                    items.add(item.trim());
+                }
+            }
         }
+        return items;
     }
 
     @Override
-    protected void doStart() throws Exception {
-        super.doStart();
-        Files.createDirectories(tempDir);
-        executorService = Executors.newCachedThreadPool();
+    public boolean process(Exchange exchange, AsyncCallback callback) {
+        if (batcher != null) {
+            batcher.add(exchange, callback);
+            return false;
+        }
 
-        if (endpoint.isPreloadPythonModules()) {
-            verifyPythonModules();
+        CompletableFuture<ScriptOutput> future;
+        String cacheKey = null;
+        try {
+            if (resultCache != null) {
+                cacheKey = createCacheKey(exchange);
+                byte[] cached = cacheKey != null ? resultCache.get(cacheKey) : null;
+                if (cached != null) {
+                    setResult(exchange, resultParser.parse(cached), PythonN2NProcessResult.success("", 0));
+                    callback.done(true);
+                    return true;
+                }
+            }
+            future = endpoint.isStreamBody()
+                    ? runWithStream(exchange)
+                    : runScript(createExchangeData(exchange), exchangeWriter, resultParser);
+        } catch (Exception e) {
+            exchange.setException(e);
+            callback.done(true);
+            return true;
         }
 
-        verifyPythonInstallation();
+        String key = cacheKey;
+        future.whenComplete((output, error) -> {
+            try {
+                if (error != null) {
+                    exchange.setException(unwrap(error));
+                } else if (!endpoint.isStreamBody()) {
+                    if (key != null) {
+                        cacheResult(key, output.result());
+                    }
+                    setResult(exchange, output.result(), output.processResult());
+                }
+            } catch (Exception e) {
+                exchange.setException(e);
+            }
+            callback.done(false);
+        });
+        return false;
     }
 
-    private void verifyPythonInstallation() throws Exception {
-        Process process = new ProcessBuilder(pythonExecutable, "--version")
-                .redirectError(ProcessBuilder.Redirect.INHERIT)
-                .start();
+    /**
+     * Hash the body and the {@code resultCacheHeaders} of the exchange, serialized in the endpoint
+     * data format. Stream caches are hashed by their content and reset, so the script still reads
+     * them from the start.
+     *
+     * @return The key, or null if the body is a stream that cannot be read twice
+     */
+    String createCacheKey(Exchange exchange) throws IOException {
+        Object body = exchange.getMessage().getBody();
+        if (body instanceof StreamCache streamCache) {
+            streamCache.reset();
+            try {
+                body = exchange.getContext().getTypeConverter().mandatoryConvertTo(byte[].class, exchange, body);
+            } catch (NoTypeConversionAvailableException e) {
+                throw new IOException("Cannot read the body to compute the result cache key", e);
+            } finally {
+                streamCache.reset();
+            }
+        } else if (body instanceof InputStream || body instanceof Reader) {
+            return null;
+        }
 
-        if (process.waitFor() != 0) {
-            throw new IllegalStateException(PythonN2NConstants.ERR_PYTHON_NOT_FOUND);
+        Map<String, Object> headers = new LinkedHashMap<>();
+        for (String name : resultCacheHeaders) {
+            headers.put(name, exchange.getMessage().getHeader(name));
         }
+        Map<String, Object> input = new LinkedHashMap<>();
+        input.put("body", body);
+        input.put("headers", headers);
+        return PythonN2NResultCache.key(objectMapper.writeValueAsBytes(input));
     }
 
-    private void verifyPythonModules() throws Exception {
-        String requiredModules = endpoint.getRequiredModules();
-        if (requiredModules != null && !requiredModules.isEmpty()) {
-            String verificationScript = createModuleVerificationScript(requiredModules);
-            Path scriptPath = tempDir.resolve("verify_modules.py");
-            Files.writeString(scriptPath, verificationScript);
-
-            Process process = new ProcessBuilder(pythonExecutable, scriptPath.toString())
-                    .redirectError(ProcessBuilder.Redirect.INHERIT)
-                    .start();
-
-            if (process.waitFor() != 0) {
-                throw new IllegalStateException(
-                        String.format(PythonN2NConstants.ERR_MISSING_MODULES, requiredModules));
+    private void cacheResult(String key, PythonN2NResult<?> result) {
+        try {
+            resultCache.put(key, objectMapper.writeValueAsBytes(result));
+        } catch (IOException e) {
+            LOG.warn("Cannot cache the result of pythonN2N:{}: {}", endpoint.getConfiguration().getName(), e.getMessage());
+        }
+    }
+
+    private PythonN2NExchangeData createExchangeData(Exchange exchange) {
+        PythonN2NExchangeData data = new PythonN2NExchangeData(exchange);
+        data.setHeaders(exchangeFilter.filterHeaders(data.getHeaders()));
+        data.setProperties(exchangeFilter.filterProperties(data.getProperties()));
+        return data;
+    }
+
+    private PythonN2NBatchData createBatchData(List<Exchange> exchanges) {
+        PythonN2NBatchData data = new PythonN2NBatchData(exchanges);
+        data.getHeaders().replaceAll(exchangeFilter::filterHeaders);
+        data.getProperties().replaceAll(exchangeFilter::filterProperties);
+        return data;
+    }
+
+    /**
+     * Run a batch of exchanges through a single script execution and fan the per-item results
+     * back out to the exchanges.
+     */
+    private void processBatch(List<PythonN2NBatcher.Entry> batch) {
+        List<Exchange> exchanges = new ArrayList<>(batch.size());
+        batch.forEach(entry -> exchanges.add(entry.exchange()));
+
+        CompletableFuture<ScriptOutput> future;
+        submittingBatch.set(true);
+        try {
+            future = runScript(createBatchData(exchanges), batchWriter, batchResultParser);
+        } catch (Exception e) {
+            completeBatch(batch, e);
+            return;
+        } finally {
+            submittingBatch.set(false);
+        }
+
+        future.whenComplete((output, error) -> {
+            if (error != null) {
+                completeBatch(batch, unwrap(error));
+                return;
+            }
+            try {
+                handleBatchSuccess(exchanges, output.result(), output.processResult());
+                completeBatch(batch, null);
+            } catch (Exception e) {
+                completeBatch(batch, e);
+            }
+        });
+    }
+
+    private void completeBatch(List<PythonN2NBatcher.Entry> batch, Throwable error) {
+        for (PythonN2NBatcher.Entry entry : batch) {
+            if (error != null) {
+                entry.exchange().setException(error);
             }
+            entry.callback().done(false);
         }
     }
 
-    private String createModuleVerificationScript(String modules) {
-        StringBuilder script = new StringBuilder("import sys\ntry:\n");
-        for (String module : modules.split(",")) {
-            script.append("    import ").append(module.trim()).append("\n");
+    /**
+     * Start the script for the given exchange or batch data.
+     */
+    private CompletableFuture<ScriptOutput> runScript(Object data, ObjectWriter writer, PythonN2NResultParser parser)
+            throws Exception {
+        if (workerPool != null) {
+            return runWithWorkerPool(data, writer, parser);
         }
-        script.append("    print('Modules verified successfully')\n")
-                .append("except ImportError as e:\n")
-                .append("    print(f'Missing module: {str(e)}', file=sys.stderr)\n")
-                .append("    sys.exit(1)\n");
-        return script.toString();
+        // Recreate the wrapper if a tmp cleaner removed it while the route was running
+        wrapperScript.installIfMissing();
+        return isFileTransport() ? runWithFiles(data, writer, parser) : runWithPipe(data, writer, parser);
     }
 
-    @Override
-    public void process(Exchange exchange) throws Exception {
+    private CompletableFuture<ScriptOutput> runWithFiles(Object data, ObjectWriter writer, PythonN2NResultParser parser)
+            throws Exception {
         int scriptId = scriptCounter.incrementAndGet();
-        Path scriptPath = tempDir.resolve(PythonN2NConstants.TEMP_SCRIPT_PREFIX + scriptId + PythonN2NConstants.PYTHON_FILE_EXTENSION);
         Path dataPath = tempDir.resolve(PythonN2NConstants.TEMP_DATA_PREFIX + scriptId + PythonN2NConstants.JSON_FILE_EXTENSION);
         Path outputPath = tempDir.resolve(PythonN2NConstants.TEMP_OUTPUT_PREFIX + scriptId + PythonN2NConstants.JSON_FILE_EXTENSION);
 
+        CompletableFuture<ProcessOutput> execution;
         try {
-            // Write exchange data to JSON file
-            objectMapper.writeValue(dataPath.toFile(), new PythonN2NExchangeData(exchange));
-
-            // Create and write Python script
-            String finalScript = buildFinalScript(dataPath, outputPath);
-            Files.writeString(scriptPath, finalScript, Charset.forName(endpoint.getEncoding()));
+            // Write exchange data to file
+            writer.writeValue(dataPath.toFile(), data);
 
             // Execute Python script
-            ProcessBuilder processBuilder = createProcessBuilder(scriptPath);
-            PythonN2NProcessResult processResult = executeScript(processBuilder);
+            ProcessBuilder processBuilder = createProcessBuilder(dataPath.toString(), outputPath.toString());
+            execution = executeScript(processBuilder, null,
+                    stdout -> new PythonN2NStreamDrainer(stdout, endpoint.getMaxOutputSize()).get());
+        } catch (Exception e) {
+            cleanupTempFiles(dataPath, outputPath);
+            throw e;
+        }
 
-            if (processResult.isSuccess()) {
-                handleSuccess(exchange, outputPath, processResult);
-            } else {
-                handleError(processResult);
+        return execution
+                .thenApply(output -> readOutput(output.processResult(), () -> {
+                    // Parse straight from the file instead of loading it first
+                    try (InputStream in = Files.newInputStream(outputPath)) {
+                        return parser.parse(in);
+                    }
+                }))
+                .whenComplete((ignored, error) -> cleanupTempFiles(dataPath, outputPath));
+    }
+
+    private CompletableFuture<ScriptOutput> runWithPipe(Object data, ObjectWriter writer, PythonN2NResultParser parser)
+            throws Exception {
+        byte[] input = writer.writeValueAsBytes(data);
+
+        ProcessBuilder processBuilder = createProcessBuilder();
+        return executeScript(processBuilder, stdin -> stdin.write(input),
+                stdout -> new PythonN2NStreamDrainer(stdout, 0).get())
+                .thenApply(output -> readOutput(output.processResult(), () -> parser.parse(output.stdout())));
+    }
+
+    /**
+     * Stream the body through the script. The exchange data without the body is sent first as a
+     * length-prefixed frame, followed by the raw body bytes, and stdout is copied into a stream
+     * cache that becomes the new body. File bodies are not copied, the script opens them itself.
+     */
+    private CompletableFuture<ScriptOutput> runWithStream(Exchange exchange) throws Exception {
+        // Recreate the wrapper if a tmp cleaner removed it while the route was running
+        wrapperScript.installIfMissing();
+
+        Path bodyPath = getBodyPath(exchange.getMessage().getBody());
+        PythonN2NExchangeData data = createExchangeData(exchange);
+        data.setBody(bodyPath != null ? bodyPath.toString() : null);
+        byte[] header = exchangeWriter.writeValueAsBytes(data);
+        InputStream body = bodyPath == null ? exchange.getMessage().getBody(InputStream.class) : null;
+
+        CachedOutputStream cache = new CachedOutputStream(exchange);
+        CompletableFuture<ProcessOutput> execution;
+        try {
+            execution = executeScript(createProcessBuilder(), stdin -> {
+                try (InputStream in = body) {
+                    DataOutputStream out = new DataOutputStream(stdin);
+                    out.writeInt(header.length);
+                    out.write(header);
+                    if (in != null) {
+                        copyBody(in, out);
+                    }
+                }
+            }, stdout -> {
+                try (InputStream in = stdout) {
+                    return new PythonN2NStreamDrainer.Output(new byte[0], in.transferTo(cache));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            IOHelper.close(cache, body);
+            throw e;
+        }
+
+        return execution
+                .thenApply(output -> readOutput(output.processResult(), () -> {
+                    exchange.getMessage().setBody(cache.newStreamCache());
+                    return null;
+                }))
+                .whenComplete((output, error) -> {
+                    if (error != null) {
+                        IOHelper.close(cache);
+                    }
+                });
+    }
+
+    private static Path getBodyPath(Object body) {
+        if (body instanceof WrappedFile<?> wrappedFile) {
+            body = wrappedFile.getFile();
+        }
+        if (body instanceof File file) {
+            return file.toPath().toAbsolutePath();
+        }
+        if (body instanceof Path path) {
+            return path.toAbsolutePath();
+        }
+        return null;
+    }
+
+    /**
+     * Copy the body to the script. Failing to read the body fails the exchange, while failing to
+     * write means the script stopped reading and is reported by its exit code.
+     */
+    private static void copyBody(InputStream body, OutputStream stdin) throws IOException {
+        byte[] buffer = new byte[PythonN2NConstants.STREAM_BUFFER_SIZE];
+        while (true) {
+            int read;
+            try {
+                read = body.read(buffer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
-        } finally {
-            if (!endpoint.isKeepTempFiles()) {
-                cleanup(scriptPath, dataPath, outputPath);
-            } else if (endpoint.isDebug()) {
-                LOG.info("Debug mode: Keeping temporary files at: {}", scriptPath.getParent());
+            if (read == -1) {
+                return;
+            }
+            stdin.write(buffer, 0, read);
+        }
+    }
+
+    private CompletableFuture<ScriptOutput> runWithWorkerPool(Object data, ObjectWriter writer, PythonN2NResultParser parser)
+            throws Exception {
+        long startTime = System.currentTimeMillis();
+        byte[] request = writer.writeValueAsBytes(data);
+
+        // Talking to a worker is blocking, so it happens on the executor rather than the route thread
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return workerPool.execute(request, endpoint.getTimeout());
+            } catch (Exception e) {
+                throw new CompletionException(e);
             }
+        }, scriptRunner).thenApply(response -> readOutput(
+                PythonN2NProcessResult.success("", System.currentTimeMillis() - startTime),
+                () -> parser.parse(response)));
+    }
+
+    /**
+     * Parse the result written by a finished script, or fail with the script error.
+     */
+    private ScriptOutput readOutput(PythonN2NProcessResult processResult, ResultReader resultReader) {
+        if (!processResult.isSuccess()) {
+            handleError(processResult);
+        }
+        try {
+            return new ScriptOutput(resultReader.read(), processResult);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The result of a script together with the process that produced it. The result is null when
+     * the body is streamed.
+     */
+    private record ScriptOutput(PythonN2NResult<?> result, PythonN2NProcessResult processResult) {
+    }
+
+    /**
+     * The captured stdout of a finished process together with its exit code and stderr.
+     */
+    private record ProcessOutput(byte[] stdout, PythonN2NProcessResult processResult) {
+    }
+
+    @FunctionalInterface
+    private interface ResultReader {
+        PythonN2NResult<?> read() throws IOException;
+    }
+
+    /**
+     * Writes the input of a script to its stdin. An {@link IOException} means the process stopped
+     * reading, any other exception fails the script.
+     */
+    @FunctionalInterface
+    private interface ScriptInput {
+        void writeTo(OutputStream stdin) throws IOException;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
         }
+        if (cause instanceof UncheckedIOException) {
+            return cause.getCause();
+        }
+        return cause;
     }
 
-    private ProcessBuilder createProcessBuilder(Path scriptPath) {
-        ProcessBuilder processBuilder = new ProcessBuilder(pythonExecutable, scriptPath.toString());
+    private ProcessBuilder createProcessBuilder(String... args) {
+        ProcessBuilder processBuilder = new ProcessBuilder(wrapperScript.command(pythonExecutable, args));
         configureEnvironment(processBuilder);
         return processBuilder;
     }
@@ -170,47 +648,122 @@ public class PythonN2NProducer extends DefaultProducer {
         }
     }
 
-    private PythonN2NProcessResult executeScript(ProcessBuilder processBuilder) throws Exception {
-        Future<PythonN2NProcessResult> future = executorService.submit(() -> {
-            long startTime = System.currentTimeMillis();
-            Process process = processBuilder.start();
+    /**
+     * Queue the script on the script executor and return a future completed once the process has
+     * exited and both of its output streams are drained. The route thread does not wait for it.
+     *
+     * @throws RejectedExecutionException if the script cannot be queued
+     */
+    private CompletableFuture<ProcessOutput> executeScript(ProcessBuilder processBuilder, ScriptInput input,
+                                                           Function<InputStream, PythonN2NStreamDrainer.Output> stdoutReader) {
+        CompletableFuture<ProcessOutput> result = new CompletableFuture<>();
+        scriptRunner.execute(() -> runScript(processBuilder, input, stdoutReader, result));
+        return result;
+    }
 
-            String stdout = new String(process.getInputStream().readAllBytes());
-            String stderr = new String(process.getErrorStream().readAllBytes());
-            int exitCode = process.waitFor();
-            long executionTime = System.currentTimeMillis() - startTime;
+    /**
+     * Run the script on a script executor thread. The thread keeps draining stdout until the
+     * process closes it, so the executor size, or the limiter with virtual threads, bounds the
+     * number of running interpreters. The raw
+     * stdout bytes are kept in the output, since in pipe mode they hold the serialized result.
+     */
+    private void runScript(ProcessBuilder processBuilder, ScriptInput input,
+                           Function<InputStream, PythonN2NStreamDrainer.Output> stdoutReader,
+                           CompletableFuture<ProcessOutput> result) {
+        long startTime = System.currentTimeMillis();
+        Process process;
+        try {
+            process = processBuilder.start();
+        } catch (IOException e) {
+            result.completeExceptionally(e);
+            return;
+        }
 
-            return new PythonN2NProcessResult(exitCode, stdout, stderr, executionTime);
-        });
+        // Feed stdin and drain both output streams concurrently so a full pipe never blocks the script
+        CompletableFuture<Void> stdin = writeInput(process, input);
+        CompletableFuture<PythonN2NStreamDrainer.Output> stdout = new CompletableFuture<>();
+        CompletableFuture<PythonN2NStreamDrainer.Output> stderr = CompletableFuture.supplyAsync(
+                new PythonN2NStreamDrainer(process.getErrorStream(), endpoint.getMaxOutputSize()), streamExecutor);
+
+        CompletableFuture.allOf(stdin, stdout, stderr, process.onExit())
+                .orTimeout(endpoint.getTimeout(), TimeUnit.MILLISECONDS)
+                .exceptionallyCompose(error -> {
+                    Throwable cause = unwrap(error);
+                    if (cause instanceof TimeoutException) {
+                        cause = new PythonScriptTimeoutException(
+                                String.format(PythonN2NConstants.ERR_SCRIPT_TIMEOUT, endpoint.getTimeout()),
+                                endpoint.getTimeout());
+                    }
+                    // Terminating the process also closes stdout and releases this thread. The
+                    // script only fails once the whole tree is gone, so its files can be removed.
+                    Throwable failure = cause;
+                    return PythonN2NProcesses.destroyTree(process, endpoint.getTimeoutGracePeriod())
+                            .thenCompose(ignored -> CompletableFuture.failedFuture(failure));
+                })
+                .thenApply(ignored -> {
+                    long executionTime = System.currentTimeMillis() - startTime;
+                    PythonN2NStreamDrainer.Output out = stdout.join();
+                    PythonN2NProcessResult processResult = new PythonN2NProcessResult(process.exitValue(),
+                            input != null ? "" : out.toString(StandardCharsets.UTF_8),
+                            stderr.join().toString(Charset.defaultCharset()),
+                            executionTime, out.size(), stderr.join().size());
+                    return new ProcessOutput(out.data(), processResult);
+                })
+                .whenComplete((processResult, error) -> {
+                    if (error != null) {
+                        result.completeExceptionally(unwrap(error));
+                    } else {
+                        result.complete(processResult);
+                    }
+                });
 
         try {
-            return future.get(endpoint.getTimeout(), TimeUnit.MILLISECONDS);
-        } catch (TimeoutException e) {
-            future.cancel(true);
-            throw new RuntimeException(String.format(PythonN2NConstants.ERR_SCRIPT_TIMEOUT, endpoint.getTimeout()));
+            stdout.complete(stdoutReader.apply(process.getInputStream()));
+        } catch (RuntimeException e) {
+            stdout.completeExceptionally(e);
         }
     }
 
-    private String buildFinalScript(Path dataPath, Path outputPath) {
-        StringBuilder scriptBuilder = new StringBuilder();
-
-        if (endpoint.getRequiredModules() != null) {
-            for (String module : endpoint.getRequiredModules().split(",")) {
-                scriptBuilder.append("import ").append(module.trim()).append("\n");
-            }
+    private CompletableFuture<Void> writeInput(Process process, ScriptInput input) {
+        if (input == null) {
+            IOHelper.close(process.getOutputStream());
+            return CompletableFuture.completedFuture(null);
         }
+        return CompletableFuture.runAsync(() -> {
+            try (OutputStream stdin = process.getOutputStream()) {
+                input.writeTo(stdin);
+            } catch (IOException e) {
+                // The process exited before reading its input, its exit code and stderr tell why
+                LOG.debug("Could not write exchange data to Python process: {}", e.getMessage());
+            }
+        }, streamExecutor);
+    }
 
-        if (endpoint.getScriptTemplate() != null) {
-            scriptBuilder.append(endpoint.getScriptTemplate()).append("\n");
+    /**
+     * Build the wrapper around the user script. It is generated once per producer: the exchange
+     * data and result files are passed as arguments, and without arguments the wrapper reads the
+     * exchange data from stdin and writes the result to stdout.
+     */
+    private String buildWrapperScript() {
+        if (endpoint.isStreamBody()) {
+            return buildStreamWrapperScript();
         }
-
-        scriptBuilder.append(String.format("""
+        return buildImports() + String.format("""
             import json
             import os
+            import sys
             
+            %1$s
             # Load exchange data
-            with open(r'%s', 'r', encoding='%s') as f:
-                data = json.load(f)
+            if len(sys.argv) > 2:
+                with open(sys.argv[1], 'rb') as f:
+                    data = _decode(f.read())
+                _result_stream = open(sys.argv[2], 'wb')
+            else:
+                data = _decode(sys.stdin.buffer.read())
+                # Keep a private copy of stdout for the result, everything printed goes to stderr
+                _result_stream = os.fdopen(os.dup(1), 'wb')
+                os.dup2(2, 1)
             
             # Set variables
             body = data['body']
@@ -218,41 +771,116 @@ public class PythonN2NProducer extends DefaultProducer {
             properties = data['properties']
             exchange_id = data['exchangeId']
             
-            # Initialize debug info
+            # Initialize debug info and per-item errors of a batch
             runtime_info = {}
             stdout_capture = []
+            errors = {}
+            
+            # User script starts here
+            %2$s
+            # User script ends here
+            
+            # Save result, debug info is only written when the endpoint returns the full output
+            _output = {
+                'result': result,
+                'errors': {str(key): value for key, value in errors.items()}
+            }
+            if %3$s:
+                _output['debugInfo'] = {
+                    'stdout': stdout_capture,
+                    'runtimeInfo': runtime_info
+                }
+            with _result_stream as f:
+                f.write(_encode(_output))
+            """,
+                endpoint.getDataFormat().getPythonCodec(),
+                endpoint.getPythonScript(),
+                endpoint.isReturnFullOutput() ? "True" : "False"
+        );
+    }
+
+    /**
+     * Build the wrapper used with {@code streamBody}. The script reads {@code body} as a binary
+     * file object and either writes its output to {@code output} or sets {@code result}.
+     */
+    private String buildStreamWrapperScript() {
+        return buildImports() + String.format("""
+            import json
+            import os
+            import struct
+            import sys
+            
+            %1$s
+            # Load exchange data, the raw body follows it on stdin
+            _stdin = sys.stdin.buffer
+            data = _decode(_stdin.read(struct.unpack('>I', _stdin.read(4))[0]))
+            
+            # Keep a private copy of stdout for the output, everything printed goes to stderr
+            output = os.fdopen(os.dup(1), 'wb')
+            os.dup2(2, 1)
+            
+            # Set variables
+            body = open(data['body'], 'rb') if data['body'] is not None else _stdin
+            headers = data['headers']
+            properties = data['properties']
+            exchange_id = data['exchangeId']
+            result = None
             
             # User script starts here
-            %s
+            %2$s
             # User script ends here
             
             # Save result
-            with open(r'%s', 'w', encoding='%s') as f:
-                json.dump({
-                    'result': result,
-                    'debugInfo': {
-                        'stdout': stdout_capture,
-                        'runtimeInfo': runtime_info
-                    }
-                }, f)
+            with output as f:
+                if isinstance(result, str):
+                    f.write(result.encode('%3$s'))
+                elif isinstance(result, (bytes, bytearray, memoryview)):
+                    f.write(result)
+                elif result is not None:
+                    f.write(_encode(result))
             """,
-                dataPath.toString().replace("\\", "\\\\"),
-                endpoint.getEncoding(),
+                endpoint.getDataFormat().getPythonCodec(),
                 endpoint.getPythonScript(),
-                outputPath.toString().replace("\\", "\\\\"),
                 endpoint.getEncoding()
-        ));
+        );
+    }
+
+    private String buildImports() {
+        StringBuilder imports = new StringBuilder();
+
+        for (String module : parseRequiredModules()) {
+            imports.append("import ").append(module).append("\n");
+        }
+
+        if (endpoint.getScriptTemplate() != null) {
+            imports.append(endpoint.getScriptTemplate()).append("\n");
+        }
 
-        return scriptBuilder.toString();
+        return imports.toString();
     }
 
-    private void handleSuccess(Exchange exchange, Path outputPath, PythonN2NProcessResult processResult)
-            throws IOException {
-        String jsonResult = Files.readString(outputPath, Charset.forName(endpoint.getEncoding()));
+    private void handleBatchSuccess(List<Exchange> exchanges, PythonN2NResult<?> batchResult,
+                                    PythonN2NProcessResult processResult) {
+        if (!(batchResult.getResult() instanceof List<?> results) || results.size() != exchanges.size()) {
+            throw new PythonN2NException(String.format(PythonN2NConstants.ERR_BATCH_RESULT, exchanges.size()));
+        }
 
+        Map<String, Object> errors = batchResult.getErrors() != null ? batchResult.getErrors() : Map.of();
+        for (int i = 0; i < exchanges.size(); i++) {
+            Object error = errors.get(String.valueOf(i));
+            if (error != null) {
+                exchanges.get(i).setException(
+                        new PythonN2NException(String.format(PythonN2NConstants.ERR_BATCH_ITEM, i, error)));
+            } else {
+                setResult(exchanges.get(i), new PythonN2NResult<>(results.get(i), batchResult.getDebugInfo()),
+                        processResult);
+            }
+        }
+    }
+
+    private void setResult(Exchange exchange, PythonN2NResult<?> result, PythonN2NProcessResult processResult) {
         if (endpoint.isReturnFullOutput()) {
-            PythonN2NResult fullResult = objectMapper.readValue(jsonResult, PythonN2NResult.class);
-            exchange.getMessage().setBody(fullResult);
+            exchange.getMessage().setBody(result);
 
             if (endpoint.isDebug()) {
                 exchange.setProperty("pythonStdout", processResult.stdout());
@@ -260,7 +888,6 @@ public class PythonN2NProducer extends DefaultProducer {
                 exchange.setProperty("pythonExecutionTime", processResult.executionTime());
             }
         } else {
-            PythonN2NResult result = objectMapper.readValue(jsonResult, PythonN2NResult.class);
             exchange.getMessage().setBody(result.getResult());
         }
     }
@@ -271,6 +898,14 @@ public class PythonN2NProducer extends DefaultProducer {
         throw new RuntimeException(errorMsg);
     }
 
+    private void cleanupTempFiles(Path dataPath, Path outputPath) {
+        if (!endpoint.isKeepTempFiles()) {
+            cleanup(dataPath, outputPath);
+        } else if (endpoint.isDebug()) {
+            LOG.info("Debug mode: Keeping temporary files at: {}", tempDir);
+        }
+    }
+
     private void cleanup(Path... paths) {
         for (Path path : paths) {
             try {
@@ -284,16 +919,35 @@ public class PythonN2NProducer extends DefaultProducer {
     @Override
     protected void doStop() throws Exception {
         super.doStop();
-        if (executorService != null) {
-            executorService.shutdown();
-            try {
-                if (!executorService.awaitTermination(5, TimeUnit.SECONDS)) {
-                    executorService.shutdownNow();
-                }
-            } catch (InterruptedException e) {
-                executorService.shutdownNow();
-                Thread.currentThread().interrupt();
+        if (batcher != null) {
+            // Hand over the exchanges still waiting while the executors are running
+            batcher.flush();
+            batcher = null;
+        }
+        if (batchScheduler != null) {
+            getEndpoint().getCamelContext().getExecutorServiceManager().shutdown(batchScheduler);
+            batchScheduler = null;
+        }
+        wrapperScript = null;
+        if (workerPool != null) {
+            workerPool.stop();
+            workerPool = null;
+        }
+        if (workerScheduler != null) {
+            getEndpoint().getCamelContext().getExecutorServiceManager().shutdown(workerScheduler);
+            workerScheduler = null;
+        }
+        ExecutorServiceManager manager = getEndpoint().getCamelContext().getExecutorServiceManager();
+        if (scriptExecutor != null) {
+            if (shutdownScriptExecutor) {
+                manager.shutdownGraceful(scriptExecutor);
             }
+            scriptExecutor = null;
+            scriptRunner = null;
+        }
+        if (streamExecutor != null) {
+            manager.shutdown(streamExecutor);
+            streamExecutor = null;
         }
     }
 }
\ No newline at end of file
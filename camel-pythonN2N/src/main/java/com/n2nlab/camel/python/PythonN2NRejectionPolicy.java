@@ -0,0 +1,28 @@
+package com.n2nlab.camel.python;
+
+/**
+ * What happens to an exchange when all script slots of an endpoint are busy
+ * and its queue is full.
+ *
+ * @author Mahmoud Ahmed at N2NLab
+ * @version 1.0
+ * @since 2025-01-22
+ */
+public enum PythonN2NRejectionPolicy {
+
+    /**
+     * Block the calling thread until the queue has room again.
+     */
+    BLOCK,
+
+    /**
+     * Fail the exchange immediately with a
+     * {@link java.util.concurrent.RejectedExecutionException}.
+     */
+    ABORT,
+
+    /**
+     * Run the script on the calling thread, which slows down the caller.
+     */
+    CALLER_RUNS
+}
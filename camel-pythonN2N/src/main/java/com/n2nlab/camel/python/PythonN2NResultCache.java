@@ -0,0 +1,130 @@
+package com.n2nlab.camel.python;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches the serialized results of an endpoint by a hash of their input.
+ * <p>
+ * Entries are evicted least recently used first when the cache holds more than its maximum number
+ * of entries or, with a byte bound, more result bytes than allowed. A result larger than the byte
+ * bound is not cached at all. Expired entries are dropped when they are read. Results are kept in
+ * their serialized form, so every hit binds a fresh object that the route is free to modify.
+ *
+ * @author Mahmoud Ahmed at N2NLab
+ * @version 1.0
+ * @since 2025-01-22
+ */
+class PythonN2NResultCache {
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final int maxEntries;
+    private final long ttl;
+    private final long maxBytes;
+    private final LongSupplier clock;
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private record Entry(byte[] value, long expiresAt) {
+    }
+
+    /**
+     * @param maxEntries The maximum number of results kept
+     * @param ttl How long a result is kept in milliseconds, or 0 to keep it until it is evicted
+     * @param maxBytes The maximum total size of the results kept, or 0 for no bound
+     */
+    PythonN2NResultCache(int maxEntries, long ttl, long maxBytes) {
+        this(maxEntries, ttl, maxBytes, System::currentTimeMillis);
+    }
+
+    PythonN2NResultCache(int maxEntries, long ttl, long maxBytes, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.maxBytes = maxBytes;
+        this.clock = clock;
+    }
+
+    /**
+     * Create the cache key for the serialized input of a script.
+     *
+     * @return The SHA-256 hash of the input as hex
+     */
+    static String key(byte[] input) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(input));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * @return The cached result, or null if there is none or it has expired
+     */
+    synchronized byte[] get(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt() != 0 && entry.expiresAt() <= clock.getAsLong()) {
+            remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value();
+    }
+
+    synchronized void put(String key, byte[] value) {
+        if (maxBytes > 0 && value.length > maxBytes) {
+            return;
+        }
+        remove(key);
+        entries.put(key, new Entry(value, ttl > 0 ? clock.getAsLong() + ttl : 0));
+        bytes += value.length;
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries || (maxBytes > 0 && bytes > maxBytes)) {
+            bytes -= eldest.next().value().length;
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private void remove(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            bytes -= removed.value().length;
+        }
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long getBytes() {
+        return bytes;
+    }
+
+    synchronized long getHits() {
+        return hits;
+    }
+
+    synchronized long getMisses() {
+        return misses;
+    }
+
+    synchronized long getEvictions() {
+        return evictions;
+    }
+}
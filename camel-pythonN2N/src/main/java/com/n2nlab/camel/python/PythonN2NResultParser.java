@@ -0,0 +1,82 @@
+package com.n2nlab.camel.python;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.n2nlab.camel.python.model.PythonN2NResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Parses the output of a script into a {@link PythonN2NResult}.
+ * <p>
+ * With the full output the whole document is bound at once. Otherwise the document is read with
+ * a streaming parser that binds only {@code result} and {@code errors} and skips everything else
+ * without building it.
+ *
+ * @author Mahmoud Ahmed at N2NLab
+ * @version 1.0
+ * @since 2025-01-22
+ */
+class PythonN2NResultParser {
+    private final ObjectReader documentReader;
+    private final ObjectReader resultReader;
+    private final ObjectReader errorsReader;
+    private final boolean fullOutput;
+
+    /**
+     * @param objectMapper The mapper of the endpoint data format
+     * @param resultType The type {@code result} is bound to
+     * @param fullOutput Whether debug information is bound as well
+     */
+    PythonN2NResultParser(ObjectMapper objectMapper, JavaType resultType, boolean fullOutput) {
+        TypeFactory typeFactory = objectMapper.getTypeFactory();
+        this.documentReader = objectMapper.readerFor(typeFactory.constructParametricType(PythonN2NResult.class, resultType));
+        this.resultReader = objectMapper.readerFor(resultType);
+        this.errorsReader = objectMapper.readerFor(typeFactory.constructMapType(Map.class, String.class, Object.class));
+        this.fullOutput = fullOutput;
+    }
+
+    PythonN2NResult<?> parse(byte[] data) throws IOException {
+        if (fullOutput) {
+            return documentReader.readValue(data);
+        }
+        try (JsonParser parser = resultReader.createParser(data)) {
+            return parse(parser);
+        }
+    }
+
+    PythonN2NResult<?> parse(InputStream data) throws IOException {
+        if (fullOutput) {
+            return documentReader.readValue(data);
+        }
+        try (JsonParser parser = resultReader.createParser(data)) {
+            return parse(parser);
+        }
+    }
+
+    private PythonN2NResult<?> parse(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw MismatchedInputException.from(parser, PythonN2NResult.class, "Expected the script output object");
+        }
+        PythonN2NResult<Object> result = new PythonN2NResult<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "result" -> result.setResult(parser.currentToken() == JsonToken.VALUE_NULL
+                        ? null : resultReader.readValue(parser));
+                case "errors" -> result.setErrors(parser.currentToken() == JsonToken.VALUE_NULL
+                        ? null : errorsReader.readValue(parser));
+                default -> parser.skipChildren();
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,93 @@
+package com.n2nlab.camel.python;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounds the scripts running on an unbounded executor, such as one starting a virtual thread per
+ * task.
+ * <p>
+ * Every task gets its own thread right away and waits for one of {@code maxConcurrentScripts}
+ * permits before it runs, so the permits rather than the thread count bound the interpreters. A
+ * virtual thread waiting for a permit is parked without holding a carrier thread. At most
+ * {@code maxQueuedScripts} tasks wait at a time, beyond that the rejection policy applies as it
+ * does for a bounded thread pool.
+ *
+ * @author Mahmoud Ahmed at N2NLab
+ * @version 1.0
+ * @since 2025-01-22
+ */
+class PythonN2NScriptLimiter implements Executor {
+    private final Executor executor;
+    private final Semaphore running;
+    private final Semaphore admitted;
+    private final PythonN2NRejectionPolicy rejectionPolicy;
+    private final LongSupplier blockTimeout;
+
+    /**
+     * @param executor The executor running the tasks, it must not bound them itself
+     * @param maxConcurrentScripts The number of tasks running at the same time
+     * @param maxQueuedScripts The number of tasks waiting to run, -1 for no bound
+     * @param rejectionPolicy What to do with a task once that many are waiting
+     * @param blockTimeout How long the {@code BLOCK} policy waits for room in milliseconds, -1 for no bound
+     */
+    PythonN2NScriptLimiter(Executor executor, int maxConcurrentScripts, int maxQueuedScripts,
+                           PythonN2NRejectionPolicy rejectionPolicy, LongSupplier blockTimeout) {
+        this.executor = executor;
+        this.running = new Semaphore(maxConcurrentScripts);
+        this.admitted = maxQueuedScripts < 0 ? null : new Semaphore(maxConcurrentScripts + maxQueuedScripts);
+        this.rejectionPolicy = rejectionPolicy;
+        this.blockTimeout = blockTimeout;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (admitted != null && !admitted.tryAcquire()) {
+            switch (rejectionPolicy) {
+                case ABORT -> throw new RejectedExecutionException("Too many Python scripts are waiting to run");
+                case CALLER_RUNS -> {
+                    task.run();
+                    return;
+                }
+                default -> {
+                    long timeout = blockTimeout.getAsLong();
+                    try {
+                        if (timeout < 0) {
+                            admitted.acquire();
+                        } else if (!admitted.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+                            throw new RejectedExecutionException(String.format(
+                                    "No room to queue Python script within %d ms", timeout));
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("Interrupted while waiting to queue Python script", e);
+                    }
+                }
+            }
+        }
+
+        try {
+            executor.execute(() -> {
+                running.acquireUninterruptibly();
+                try {
+                    task.run();
+                } finally {
+                    running.release();
+                    release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            release();
+            throw e;
+        }
+    }
+
+    private void release() {
+        if (admitted != null) {
+            admitted.release();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.n2nlab.camel.python;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.function.Supplier;
+
+/**
+ * Reads a process output stream to its end while keeping at most a fixed number of bytes.
+ * <p>
+ * The stream is always consumed completely, so the process never blocks on a full pipe, but
+ * anything beyond the limit is only counted. Each stream of a process gets its own drainer
+ * running concurrently with the others.
+ *
+ * @author Mahmoud Ahmed at N2NLab
+ * @version 1.0
+ * @since 2025-01-22
+ */
+class PythonN2NStreamDrainer implements Supplier<PythonN2NStreamDrainer.Output> {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final InputStream stream;
+    private final int limit;
+
+    /**
+     * @param stream The stream to drain
+     * @param limit Maximum number of bytes to keep, 0 to keep everything
+     */
+    PythonN2NStreamDrainer(InputStream stream, int limit) {
+        this.stream = stream;
+        this.limit = limit;
+    }
+
+    @Override
+    public Output get() {
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long size = 0;
+        try (InputStream in = stream) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                if (limit <= 0) {
+                    captured.write(buffer, 0, read);
+                } else if (captured.size() < limit) {
+                    captured.write(buffer, 0, Math.min(read, limit - captured.size()));
+                }
+                size += read;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Output(captured.toByteArray(), size);
+    }
+
+    /**
+     * The captured part of a stream.
+     *
+     * @param data The bytes kept
+     * @param size The total number of bytes the stream produced
+     */
+    record Output(byte[] data, long size) {
+
+        boolean isTruncated() {
+            return size > data.length;
+        }
+
+        /**
+         * Decode the captured bytes, followed by a marker if the output was truncated.
+         */
+        String toString(Charset charset) {
+            String text = new String(data, charset);
+            if (isTruncated()) {
+                text += String.format(PythonN2NConstants.OUTPUT_TRUNCATED_MARKER, data.length, size);
+            }
+            return text;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.n2nlab.camel.python;
+
+/**
+ * How exchange data and results are passed to and from a Python process in
+ * {@link PythonN2NExecutionMode#PROCESS} mode.
+ *
+ * @author Mahmoud Ahmed at N2NLab
+ * @version 1.0
+ * @since 2025-01-22
+ */
+public enum PythonN2NTransport {
+
+    /**
+     * Stream the exchange data to the process over stdin and read the result
+     * from stdout. Output printed by the script is redirected to stderr. No
+     * files are written per exchange.
+     */
+    PIPE,
+
+    /**
+     * Write the exchange data, the generated script and the result to
+     * temporary files. Used whenever temporary files are kept or debug mode
+     * is enabled, so the files can be inspected.
+     */
+    FILE
+}
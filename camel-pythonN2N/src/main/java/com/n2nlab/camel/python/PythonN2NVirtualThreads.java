@@ -0,0 +1,39 @@
+package com.n2nlab.camel.python;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to virtual threads without requiring a Java 21 compile target.
+ * <p>
+ * The component is built for Java 17, so the {@code Thread.ofVirtual()} API is looked up
+ * reflectively and is only available when running on Java 21 or later.
+ *
+ * @author Mahmoud Ahmed at N2NLab
+ * @version 1.0
+ * @since 2025-01-22
+ */
+final class PythonN2NVirtualThreads {
+
+    private PythonN2NVirtualThreads() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Create a factory for virtual threads named {@code name} followed by a counter.
+     *
+     * @param name The thread name prefix
+     * @return The thread factory, or null if the JVM does not support virtual threads
+     */
+    static ThreadFactory newThreadFactory(String name) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, name + "-", 1L);
+            Method factory = builderType.getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
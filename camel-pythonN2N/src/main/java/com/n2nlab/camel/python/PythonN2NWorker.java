@@ -0,0 +1,282 @@
+package com.n2nlab.camel.python;
+
+import com.n2nlab.camel.python.exception.PythonN2NException;
+import com.n2nlab.camel.python.exception.PythonScriptTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A long-lived Python interpreter that executes exchanges over a framed stdin/stdout protocol.
+ * <p>
+ * Requests are written as a 4-byte big-endian length followed by the payload, serialized in the
+ * endpoint data format. Responses are a status byte, a 4-byte length and the payload: the result
+ * on success or the Python traceback on failure. The initial request is always JSON. Anything
+ * the user script prints ends up on stderr, which is forwarded to the log.
+ * <p>
+ * In zygote mode the interpreter never runs the script itself: it forks a child per request
+ * that inherits the loaded modules and compiled script, runs it and exits.
+ *
+ * @author Mahmoud Ahmed at N2NLab
+ * @version 1.0
+ * @since 2025-01-22
+ */
+class PythonN2NWorker {
+    private static final Logger LOG = LoggerFactory.getLogger(PythonN2NWorker.class);
+
+    static final int STATUS_OK = 0;
+    static final int STATUS_ERROR = 1;
+
+    static final String WORKER_SCRIPT = """
+            import json
+            import os
+            import struct
+            import sys
+            import traceback
+
+            _requests = sys.stdin.buffer
+            _responses = os.fdopen(os.dup(1), 'wb')
+            os.dup2(2, 1)
+
+            def _read_frame():
+                header = _requests.read(4)
+                if len(header) < 4:
+                    return None
+                return _requests.read(struct.unpack('>I', header)[0])
+
+            def _write_frame(status, payload):
+                _responses.write(struct.pack('>BI', status, len(payload)))
+                _responses.write(payload)
+                _responses.flush()
+
+            def _write_error():
+                _write_frame(1, traceback.format_exc().encode('utf-8'))
+
+            init = json.loads(_read_frame())
+            # The template and every request share these globals, so template functions see the
+            # request variables. They are reset to the state after the template after each request.
+            scope = {'__name__': '__main__', '__builtins__': __builtins__, 'json': json, 'os': os, 'sys': sys}
+            try:
+                for module in init['modules']:
+                    exec('import ' + module, scope)
+                if init.get('template'):
+                    exec(compile(init['template'], '<scriptTemplate>', 'exec'), scope)
+                code = compile(init['script'], '<pythonScript>', 'exec')
+                exec(init['codec'], globals())
+                if init.get('fork') and not hasattr(os, 'fork'):
+                    raise OSError('os.fork() is not available on this platform')
+            except BaseException:
+                _write_error()
+                sys.exit(1)
+            base = dict(scope)
+            _write_frame(0, b'{}')
+
+            def _execute(frame):
+                try:
+                    data = _decode(frame)
+                    scope.update({
+                        'data': data,
+                        'body': data['body'],
+                        'headers': data['headers'],
+                        'properties': data['properties'],
+                        'exchange_id': data['exchangeId'],
+                        'runtime_info': {},
+                        'stdout_capture': [],
+                        'errors': {}
+                    })
+                    exec(code, scope)
+                    output = {
+                        'result': scope['result'],
+                        'errors': {str(key): value for key, value in scope['errors'].items()}
+                    }
+                    if init.get('debugInfo'):
+                        output['debugInfo'] = {
+                            'stdout': scope['stdout_capture'],
+                            'runtimeInfo': scope['runtime_info']
+                        }
+                    return 0, _encode(output)
+                except BaseException:
+                    return 1, traceback.format_exc().encode('utf-8')
+                finally:
+                    scope.clear()
+                    scope.update(base)
+
+            def _execute_forked(frame):
+                # Run the request in a child, so nothing the script does survives in this interpreter
+                reader, writer = os.pipe()
+                # The child inherits the output buffers, which must not hold anything printed earlier
+                sys.stdout.flush()
+                sys.stderr.flush()
+                pid = os.fork()
+                if pid == 0:
+                    try:
+                        os.close(reader)
+                        status, payload = _execute(frame)
+                        with os.fdopen(writer, 'wb') as reply:
+                            reply.write(bytes([status]) + payload)
+                    finally:
+                        # os._exit skips the interpreter shutdown that would flush what the script printed
+                        try:
+                            sys.stdout.flush()
+                            sys.stderr.flush()
+                        finally:
+                            os._exit(0)
+                os.close(writer)
+                with os.fdopen(reader, 'rb') as reply:
+                    payload = reply.read()
+                wait_status = os.waitpid(pid, 0)[1]
+                if wait_status != 0 or not payload:
+                    return 1, ('Python child process %d ended with wait status %d before replying'
+                               % (pid, wait_status)).encode('utf-8')
+                return payload[0], payload[1:]
+
+            _run = _execute_forked if init.get('fork') else _execute
+            while True:
+                frame = _read_frame()
+                if frame is None:
+                    break
+                _write_frame(*_run(frame))
+            """;
+
+    private final Process process;
+    private final long gracePeriod;
+    private final DataOutputStream requests;
+    private final DataInputStream responses;
+    private volatile long lastUsed;
+    private volatile boolean timedOut;
+    private int requestCount;
+
+    private PythonN2NWorker(Process process, long gracePeriod) {
+        this.process = process;
+        this.gracePeriod = gracePeriod;
+        this.requests = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+        this.responses = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+        this.lastUsed = System.currentTimeMillis();
+    }
+
+    /**
+     * Start a worker and wait until it has imported the modules and compiled the script.
+     *
+     * @param processBuilder Process builder running {@link #WORKER_SCRIPT}
+     * @param initRequest JSON describing the modules, template and script to load
+     * @param gracePeriod Milliseconds a stopped worker gets to exit before it is killed
+     * @param timeout Milliseconds the worker gets to start before it is killed
+     * @param scheduler Scheduler of the startup timeout
+     * @param stderrExecutor Executor running the task that forwards stderr to the log
+     * @return A ready worker
+     * @throws IOException if the process cannot be started or fails to initialize
+     * @throws PythonScriptTimeoutException if the worker did not start in time
+     */
+    static PythonN2NWorker start(ProcessBuilder processBuilder, byte[] initRequest, long gracePeriod, long timeout,
+                                 ScheduledExecutorService scheduler, Executor stderrExecutor) throws IOException {
+        PythonN2NWorker worker = new PythonN2NWorker(processBuilder.start(), gracePeriod);
+        ScheduledFuture<?> watchdog = scheduler.schedule(worker::timeout, timeout, TimeUnit.MILLISECONDS);
+        try {
+            stderrExecutor.execute(worker::forwardStderr);
+            worker.execute(initRequest);
+            worker.requestCount = 0;
+        } catch (IOException | RuntimeException e) {
+            worker.destroy();
+            if (!worker.isTimedOut()) {
+                throw e;
+            }
+        } finally {
+            watchdog.cancel(false);
+        }
+        if (worker.isTimedOut()) {
+            worker.destroy();
+            throw new PythonScriptTimeoutException(
+                    String.format(PythonN2NConstants.ERR_WORKER_START_TIMEOUT, timeout), timeout);
+        }
+        LOG.debug("Started Python worker process {}", worker.process.pid());
+        return worker;
+    }
+
+    private void forwardStderr() {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                LOG.debug("[python worker {}] {}", process.pid(), line);
+            }
+        } catch (IOException e) {
+            LOG.trace("Stopped reading stderr of Python worker {}: {}", process.pid(), e.getMessage());
+        }
+    }
+
+    /**
+     * Send one request to the worker and wait for its response.
+     *
+     * @param request The request payload
+     * @return The serialized result written by the worker
+     * @throws IOException if the worker cannot be reached or dies while processing
+     * @throws PythonN2NException if the Python script raised an error
+     */
+    byte[] execute(byte[] request) throws IOException {
+        requestCount++;
+        try {
+            requests.writeInt(request.length);
+            requests.write(request);
+            requests.flush();
+
+            int status = responses.read();
+            if (status < 0) {
+                throw new EOFException("Python worker process " + process.pid() + " exited unexpectedly");
+            }
+            byte[] payload = new byte[responses.readInt()];
+            responses.readFully(payload);
+
+            if (status != STATUS_OK) {
+                throw new PythonN2NException(String.format(PythonN2NConstants.ERR_WORKER_SCRIPT,
+                        new String(payload, StandardCharsets.UTF_8)));
+            }
+            return payload;
+        } finally {
+            lastUsed = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Kill the worker because its current request exceeded the timeout.
+     */
+    void timeout() {
+        timedOut = true;
+        destroy();
+    }
+
+    boolean isTimedOut() {
+        return timedOut;
+    }
+
+    boolean isAlive() {
+        return process.isAlive();
+    }
+
+    int getRequestCount() {
+        return requestCount;
+    }
+
+    long getLastUsed() {
+        return lastUsed;
+    }
+
+    void destroy() {
+        if (process.isAlive()) {
+            LOG.debug("Stopping Python worker process {}", process.pid());
+            PythonN2NProcesses.destroyTree(process, gracePeriod);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.n2nlab.camel.python;
+
+import com.n2nlab.camel.python.exception.PythonN2NException;
+import com.n2nlab.camel.python.exception.PythonScriptTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of {@link PythonN2NWorker} processes.
+ * <p>
+ * Workers are created on demand up to {@code maxWorkers}, kept warm down to {@code minWorkers},
+ * evicted after {@code idleTimeout} milliseconds without work and recycled once they have served
+ * {@code maxRequestsPerWorker} requests.
+ *
+ * @author Mahmoud Ahmed at N2NLab
+ * @version 1.0
+ * @since 2025-01-22
+ */
+class PythonN2NWorkerPool {
+    private static final Logger LOG = LoggerFactory.getLogger(PythonN2NWorkerPool.class);
+
+    private final Supplier<ProcessBuilder> processBuilderFactory;
+    private final byte[] initRequest;
+    private final int minWorkers;
+    private final int maxWorkers;
+    private final long idleTimeout;
+    private final int maxRequestsPerWorker;
+    private final long gracePeriod;
+    private final long startTimeout;
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+    private final AtomicBoolean replenishing = new AtomicBoolean();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Deque<PythonN2NWorker> idleWorkers = new ArrayDeque<>();
+    private int totalWorkers;
+    private boolean stopped;
+    private ScheduledFuture<?> evictionTask;
+
+    /**
+     * @param startTimeout Milliseconds a worker started to keep the minimum gets to initialize,
+     *                     workers started for a request get the time left until its deadline
+     * @param scheduler Scheduler of the idle eviction and the timeouts, it never starts workers
+     * @param executor Executor forwarding the stderr of every worker to the log and starting the
+     *                 workers that replace evicted ones
+     */
+    PythonN2NWorkerPool(Supplier<ProcessBuilder> processBuilderFactory, byte[] initRequest,
+                        int minWorkers, int maxWorkers, long idleTimeout, int maxRequestsPerWorker,
+                        long gracePeriod, long startTimeout, ScheduledExecutorService scheduler,
+                        Executor executor) {
+        if (maxWorkers < 1 || minWorkers < 0 || minWorkers > maxWorkers) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid worker pool size: minWorkers=%d, maxWorkers=%d", minWorkers, maxWorkers));
+        }
+        this.processBuilderFactory = processBuilderFactory;
+        this.initRequest = initRequest;
+        this.minWorkers = minWorkers;
+        this.maxWorkers = maxWorkers;
+        this.idleTimeout = idleTimeout;
+        this.maxRequestsPerWorker = maxRequestsPerWorker;
+        this.gracePeriod = gracePeriod;
+        this.startTimeout = startTimeout;
+        this.scheduler = scheduler;
+        this.executor = executor;
+    }
+
+    /**
+     * Start the minimum number of workers and schedule idle eviction.
+     *
+     * @throws IOException if a worker cannot be started
+     */
+    void start() throws IOException {
+        ensureMinimumWorkers();
+        if (idleTimeout > 0) {
+            long interval = Math.max(idleTimeout / 2, 100);
+            evictionTask = scheduler.scheduleWithFixedDelay(this::evictIdleWorkers,
+                    interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Execute a request on a pooled worker.
+     *
+     * @param request The request payload
+     * @param timeout Maximum time in milliseconds to wait for a worker and its response
+     * @return The JSON result written by the worker
+     * @throws Exception if no worker is available in time, the script fails or times out
+     */
+    byte[] execute(byte[] request, long timeout) throws Exception {
+        long deadline = System.currentTimeMillis() + timeout;
+        PythonN2NWorker worker = borrow(deadline);
+        boolean healthy = false;
+        ScheduledFuture<?> watchdog = scheduler.schedule(worker::timeout,
+                Math.max(deadline - System.currentTimeMillis(), 1), TimeUnit.MILLISECONDS);
+        try {
+            byte[] response = worker.execute(request);
+            healthy = true;
+            return response;
+        } catch (PythonN2NException e) {
+            healthy = true;
+            throw e;
+        } catch (IOException e) {
+            if (worker.isTimedOut()) {
+                throw new PythonScriptTimeoutException(String.format(PythonN2NConstants.ERR_SCRIPT_TIMEOUT, timeout), timeout);
+            }
+            throw new PythonN2NException("Python worker failed: " + e.getMessage(), e);
+        } finally {
+            watchdog.cancel(false);
+            release(worker, healthy && !worker.isTimedOut());
+        }
+    }
+
+    private PythonN2NWorker borrow(long deadline) throws Exception {
+        lock.lock();
+        try {
+            while (true) {
+                if (stopped) {
+                    throw new IllegalStateException("Python worker pool is stopped");
+                }
+                PythonN2NWorker worker = idleWorkers.pollFirst();
+                if (worker != null) {
+                    if (worker.isAlive()) {
+                        return worker;
+                    }
+                    totalWorkers--;
+                    continue;
+                }
+                if (totalWorkers < maxWorkers) {
+                    totalWorkers++;
+                    break;
+                }
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    throw new PythonN2NException(String.format(
+                            "No Python worker became available within the timeout (maxWorkers=%d)", maxWorkers));
+                }
+                available.await(remaining, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return createWorker(Math.max(deadline - System.currentTimeMillis(), 1));
+    }
+
+    private PythonN2NWorker createWorker(long timeout) throws IOException {
+        try {
+            return PythonN2NWorker.start(processBuilderFactory.get(), initRequest, gracePeriod, timeout,
+                    scheduler, executor);
+        } catch (IOException | RuntimeException e) {
+            lock.lock();
+            try {
+                totalWorkers--;
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    private void release(PythonN2NWorker worker, boolean healthy) {
+        boolean retire = !healthy || !worker.isAlive()
+                || (maxRequestsPerWorker > 0 && worker.getRequestCount() >= maxRequestsPerWorker);
+        lock.lock();
+        try {
+            if (retire || stopped) {
+                totalWorkers--;
+            } else {
+                idleWorkers.addFirst(worker);
+            }
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (retire || stopped) {
+            LOG.debug("Retiring Python worker after {} requests", worker.getRequestCount());
+            worker.destroy();
+        }
+    }
+
+    private void evictIdleWorkers() {
+        List<PythonN2NWorker> evicted = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            Iterator<PythonN2NWorker> iterator = idleWorkers.descendingIterator();
+            while (iterator.hasNext() && totalWorkers > minWorkers) {
+                PythonN2NWorker worker = iterator.next();
+                if (!worker.isAlive() || now - worker.getLastUsed() >= idleTimeout) {
+                    iterator.remove();
+                    totalWorkers--;
+                    evicted.add(worker);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (!evicted.isEmpty()) {
+            LOG.debug("Evicting {} idle Python worker(s)", evicted.size());
+            evicted.forEach(PythonN2NWorker::destroy);
+        }
+        replenish();
+    }
+
+    /**
+     * Start workers up to the minimum on the executor. Starting a worker blocks until it has
+     * initialized, so doing it on the scheduler would hold up the timeouts scheduled there,
+     * including the startup timeout of that very worker.
+     */
+    private void replenish() {
+        if (!replenishing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    ensureMinimumWorkers();
+                } catch (Exception e) {
+                    LOG.warn("Failed to replenish Python worker pool: {}", e.getMessage());
+                } finally {
+                    replenishing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            replenishing.set(false);
+            LOG.debug("Not replenishing Python worker pool: {}", e.getMessage());
+        }
+    }
+
+    private void ensureMinimumWorkers() throws IOException {
+        while (true) {
+            lock.lock();
+            try {
+                if (stopped || totalWorkers >= minWorkers) {
+                    return;
+                }
+                totalWorkers++;
+            } finally {
+                lock.unlock();
+            }
+            release(createWorker(startTimeout), true);
+        }
+    }
+
+    /**
+     * Stop the pool and destroy all idle workers. Busy workers are destroyed when released.
+     */
+    void stop() {
+        List<PythonN2NWorker> workers;
+        lock.lock();
+        try {
+            stopped = true;
+            workers = new ArrayList<>(idleWorkers);
+            totalWorkers -= idleWorkers.size();
+            idleWorkers.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (evictionTask != null) {
+            evictionTask.cancel(false);
+        }
+        workers.forEach(PythonN2NWorker::destroy);
+    }
+}
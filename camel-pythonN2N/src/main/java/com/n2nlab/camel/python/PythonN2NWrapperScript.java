@@ -0,0 +1,127 @@
+package com.n2nlab.camel.python;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The generated Python wrapper of an endpoint, stored once as a module in the private temporary
+ * directory of the component.
+ * <p>
+ * The module name is derived from a hash of the source, so the file never changes once written
+ * and endpoints with the same script share it. The module is started through {@code runpy}
+ * rather than as a script file, which lets Python reuse the bytecode cached in
+ * {@code __pycache__} instead of recompiling the wrapper for every exchange.
+ *
+ * @author Mahmoud Ahmed at N2NLab
+ * @version 1.0
+ * @since 2025-01-22
+ */
+class PythonN2NWrapperScript {
+    private static final Logger LOG = LoggerFactory.getLogger(PythonN2NWrapperScript.class);
+
+    private static final String BOOTSTRAP = "import runpy, sys; sys.path.insert(0, r'%s'); "
+            + "runpy.run_module('%s', run_name='__main__', alter_sys=True)";
+
+    private final String source;
+    private final String moduleName;
+    private final Path path;
+    private final String bootstrap;
+    private final Charset charset;
+    private final AtomicInteger installCount = new AtomicInteger();
+
+    /**
+     * @param source The Python source of the wrapper
+     * @param directory The directory the module is written to
+     * @param charset The encoding of the module file
+     */
+    PythonN2NWrapperScript(String source, Path directory, Charset charset) {
+        this.source = "# -*- coding: " + charset.name() + " -*-\n" + source;
+        this.charset = charset;
+        this.moduleName = PythonN2NConstants.WRAPPER_MODULE_PREFIX + hash(this.source);
+        this.path = directory.resolve(moduleName + PythonN2NConstants.PYTHON_FILE_EXTENSION);
+        this.bootstrap = String.format(BOOTSTRAP, directory.toString().replace("\\", "\\\\"), moduleName);
+    }
+
+    private static String hash(String source) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Write the module unless it already exists with the expected content. The file is written
+     * under a temporary name and then moved into place, so a concurrently starting interpreter
+     * never sees a partial module.
+     *
+     * @throws IOException if the module cannot be written
+     */
+    void install() throws IOException {
+        installCount.incrementAndGet();
+        if (Files.isRegularFile(path, LinkOption.NOFOLLOW_LINKS) && source.equals(Files.readString(path, charset))) {
+            return;
+        }
+        Path tempFile = Files.createTempFile(path.getParent(), moduleName, ".tmp");
+        try {
+            Files.writeString(tempFile, source, charset);
+            Files.move(tempFile, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            LOG.debug("Wrote Python wrapper module {}", path);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Write the module again if it no longer exists, for example because a tmp cleaner removed
+     * it while the route was running. This only checks that the file exists, its content was
+     * verified by {@link #install()} when the producer started.
+     *
+     * @throws IOException if the module cannot be written
+     */
+    void installIfMissing() throws IOException {
+        if (Files.notExists(path, LinkOption.NOFOLLOW_LINKS)) {
+            install();
+        }
+    }
+
+    /**
+     * Build the command that runs the wrapper.
+     *
+     * @param pythonExecutable The Python interpreter
+     * @param args Arguments passed to the wrapper in {@code sys.argv}
+     * @return The command line
+     */
+    List<String> command(String pythonExecutable, String... args) {
+        List<String> command = new ArrayList<>(args.length + 3);
+        command.add(pythonExecutable);
+        command.add("-c");
+        command.add(bootstrap);
+        command.addAll(Arrays.asList(args));
+        return command;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    int getInstallCount() {
+        return installCount.get();
+    }
+}
@@ -46,22 +46,6 @@ class PythonScriptExecutionException extends PythonN2NException {
     }
 }
 
-/**
- * Exception thrown when Python script execution times out.
- */
-class PythonScriptTimeoutException extends PythonN2NException {
-    private final long timeout;
-
-    public PythonScriptTimeoutException(String message, long timeout) {
-        super(message);
-        this.timeout = timeout;
-    }
-
-    public long getTimeout() {
-        return timeout;
-    }
-}
-
 /**
  * Exception thrown when required Python modules are missing.
  */
@@ -0,0 +1,25 @@
+package com.n2nlab.camel.python.exception;
+
+/**
+ * Exception thrown when Python script execution times out. The script process and every process
+ * it started have been terminated when it is thrown.
+ *
+ * @author Mahmoud Ahmed at N2NLab
+ * @version 1.0
+ * @since 2025-01-22
+ */
+public class PythonScriptTimeoutException extends PythonN2NException {
+    private final long timeout;
+
+    public PythonScriptTimeoutException(String message, long timeout) {
+        super(message);
+        this.timeout = timeout;
+    }
+
+    /**
+     * @return The timeout in milliseconds that was exceeded
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+}
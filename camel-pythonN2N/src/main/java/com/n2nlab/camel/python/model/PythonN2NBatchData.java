@@ -0,0 +1,74 @@
+package com.n2nlab.camel.python.model;
+
+import org.apache.camel.Exchange;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data model class for passing a batch of exchanges to a single Python script execution.
+ * <p>
+ * It uses the same fields as {@link PythonN2NExchangeData}, but each field holds a list with
+ * one entry per exchange, in batch order.
+ *
+ * @author Mahmoud Ahmed at N2NLab
+ * @version 1.0
+ * @since 2025-01-22
+ */
+public class PythonN2NBatchData {
+    private List<Object> body;
+    private List<Map<String, Object>> headers;
+    private List<Map<String, Object>> properties;
+    private List<String> exchangeId;
+
+    public PythonN2NBatchData(List<Exchange> exchanges) {
+        this.body = new ArrayList<>(exchanges.size());
+        this.headers = new ArrayList<>(exchanges.size());
+        this.properties = new ArrayList<>(exchanges.size());
+        this.exchangeId = new ArrayList<>(exchanges.size());
+        for (Exchange exchange : exchanges) {
+            body.add(exchange.getMessage().getBody());
+            headers.add(exchange.getMessage().getHeaders());
+            properties.add(exchange.getProperties());
+            exchangeId.add(exchange.getExchangeId());
+        }
+    }
+
+    // Default constructor for Jackson
+    public PythonN2NBatchData() {
+    }
+
+    // Getters and setters
+    public List<Object> getBody() {
+        return body;
+    }
+
+    public void setBody(List<Object> body) {
+        this.body = body;
+    }
+
+    public List<Map<String, Object>> getHeaders() {
+        return headers;
+    }
+
+    public void setHeaders(List<Map<String, Object>> headers) {
+        this.headers = headers;
+    }
+
+    public List<Map<String, Object>> getProperties() {
+        return properties;
+    }
+
+    public void setProperties(List<Map<String, Object>> properties) {
+        this.properties = properties;
+    }
+
+    public List<String> getExchangeId() {
+        return exchangeId;
+    }
+
+    public void setExchangeId(List<String> exchangeId) {
+        this.exchangeId = exchangeId;
+    }
+}
@@ -1,7 +1,12 @@
 package com.n2nlab.camel.python.model;
 
+import java.nio.charset.StandardCharsets;
+
 /**
  * Data model class for Python process execution results.
+ * <p>
+ * The captured output may be truncated; {@code stdoutSize} and {@code stderrSize} always hold
+ * the number of bytes the process actually wrote to each stream.
  *
  * @author Mahmoud Ahmed at N2NLab
  * @version 1.0
@@ -11,8 +16,23 @@ public record PythonN2NProcessResult(
         int exitCode,
         String stdout,
         String stderr,
-        long executionTime
+        long executionTime,
+        long stdoutSize,
+        long stderrSize
 ) {
+    /**
+     * Create a result whose output was captured completely.
+     *
+     * @param exitCode Process exit code
+     * @param stdout Standard output
+     * @param stderr Standard error output
+     * @param executionTime Execution time in milliseconds
+     */
+    public PythonN2NProcessResult(int exitCode, String stdout, String stderr, long executionTime) {
+        this(exitCode, stdout, stderr, executionTime,
+                stdout.getBytes(StandardCharsets.UTF_8).length, stderr.getBytes(StandardCharsets.UTF_8).length);
+    }
+
     /**
      * Check if the process execution was successful.
      *
@@ -44,4 +64,4 @@ public record PythonN2NProcessResult(
     public static PythonN2NProcessResult failure(int exitCode, String stderr, long executionTime) {
         return new PythonN2NProcessResult(exitCode, "", stderr, executionTime);
     }
-}
\ No newline at end of file
+}
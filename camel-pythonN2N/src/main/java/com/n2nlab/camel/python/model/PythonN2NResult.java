@@ -4,29 +4,35 @@ import java.util.Map;
 
 /**
  * Data model class for Python script execution results.
+ * <p>
+ * The type parameter is the type the {@code result} value is bound to, which is
+ * {@code Object} unless a {@code resultType} is configured on the endpoint.
+ *
+ * @param <T> The type of the result value
  *
  * @author Mahmoud Ahmed at N2NLab
  * @version 1.0
  * @since 2025-01-22
  */
-public class PythonN2NResult {
-    private Object result;
+public class PythonN2NResult<T> {
+    private T result;
     private Map<String, Object> debugInfo;
+    private Map<String, Object> errors;
 
     // Default constructor for Jackson
     public PythonN2NResult() {
     }
 
-    public PythonN2NResult(Object result, Map<String, Object> debugInfo) {
+    public PythonN2NResult(T result, Map<String, Object> debugInfo) {
         this.result = result;
         this.debugInfo = debugInfo;
     }
 
-    public Object getResult() {
+    public T getResult() {
         return result;
     }
 
-    public void setResult(Object result) {
+    public void setResult(T result) {
         this.result = result;
     }
 
@@ -37,4 +43,15 @@ public class PythonN2NResult {
     public void setDebugInfo(Map<String, Object> debugInfo) {
         this.debugInfo = debugInfo;
     }
-}
\ No newline at end of file
+
+    /**
+     * @return Per-item error messages set by the script in batch mode, keyed by item index
+     */
+    public Map<String, Object> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(Map<String, Object> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,177 @@
+package com.n2nlab.camel.python;
+
+import com.n2nlab.camel.python.exception.PythonN2NException;
+import org.apache.camel.Exchange;
+import org.apache.camel.ExchangePattern;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.test.junit5.CamelTestSupport;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for batching exchanges with {@code batchSize} and {@code batchTimeoutMs}.
+ */
+public class PythonN2NBatchTest extends CamelTestSupport {
+
+    private static final String BATCH_SCRIPT = "result = [[b * 2, os.getpid(), len(body)] for b in body]";
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+            @Override
+            public void configure() {
+                context.addComponent("pythonN2N", new PythonN2NComponent());
+
+                from("direct:batch")
+                        .toF("pythonN2N:batch?batchSize=4&batchTimeoutMs=5000&pythonScript=%s",
+                                URLEncoder.encode(BATCH_SCRIPT, StandardCharsets.UTF_8));
+
+                from("direct:batchTimeout")
+                        .toF("pythonN2N:batchTimeout?batchSize=100&batchTimeoutMs=200&pythonScript=%s",
+                                URLEncoder.encode(BATCH_SCRIPT, StandardCharsets.UTF_8));
+
+                from("direct:batchWorker")
+                        .toF("pythonN2N:batchWorker?executionMode=WORKER_POOL&batchSize=4&batchTimeoutMs=5000&pythonScript=%s",
+                                URLEncoder.encode(BATCH_SCRIPT, StandardCharsets.UTF_8));
+
+                from("direct:batchErrors")
+                        .toF("pythonN2N:batchErrors?batchSize=3&batchTimeoutMs=5000&pythonScript=%s",
+                                URLEncoder.encode("""
+                                        result = []
+                                        for i, b in enumerate(body):
+                                            if b < 0:
+                                                errors[i] = 'negative value %d' % b
+                                                result.append(None)
+                                            else:
+                                                result.append(b + 1)
+                                        """, StandardCharsets.UTF_8));
+
+                // The first batch ignores SIGTERM and holds the only script thread for the grace period
+                from("direct:batchBlocked")
+                        .toF("pythonN2N:batchBlocked?batchSize=10&batchTimeoutMs=50&maxConcurrentScripts=1"
+                                        + "&maxQueuedScripts=0&timeout=500&timeoutGracePeriod=4000&pythonScript=%s",
+                                URLEncoder.encode("""
+                                        import signal, time
+                                        signal.signal(signal.SIGTERM, signal.SIG_IGN)
+                                        time.sleep(10)
+                                        result = body
+                                        """, StandardCharsets.UTF_8));
+
+                from("direct:batchWrongResult")
+                        .toF("pythonN2N:batchWrongResult?batchSize=2&batchTimeoutMs=5000&pythonScript=%s",
+                                URLEncoder.encode("result = 'not a list'", StandardCharsets.UTF_8));
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Should process a full batch in a single script execution")
+    public void testFullBatch() throws Exception {
+        List<List<?>> results = sendAll("direct:batch", 1, 2, 3, 4);
+
+        HashSet<Object> pids = new HashSet<>();
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals((i + 1) * 2, results.get(i).get(0));
+            assertEquals(4, results.get(i).get(2));
+            pids.add(results.get(i).get(1));
+        }
+        assertEquals(1, pids.size());
+    }
+
+    @Test
+    @DisplayName("Should process an incomplete batch after the batch timeout")
+    public void testBatchTimeout() throws Exception {
+        List<List<?>> results = sendAll("direct:batchTimeout", 5, 6);
+
+        assertEquals(List.of(10, 12), List.of(results.get(0).get(0), results.get(1).get(0)));
+        assertEquals(2, results.get(0).get(2));
+    }
+
+    @Test
+    @DisplayName("Should batch exchanges on pooled workers")
+    public void testBatchWithWorkerPool() throws Exception {
+        List<List<?>> results = sendAll("direct:batchWorker", 1, 2, 3, 4);
+
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals((i + 1) * 2, results.get(i).get(0));
+            assertEquals(4, results.get(i).get(2));
+        }
+    }
+
+    @Test
+    @DisplayName("Should report errors per batch item")
+    public void testPerItemErrors() throws Exception {
+        List<Exchange> exchanges = requestAll("direct:batchErrors", 1, -2, 3);
+
+        assertEquals(2, exchanges.get(0).getMessage().getBody());
+        assertInstanceOf(PythonN2NException.class, exchanges.get(1).getException());
+        assertTrue(exchanges.get(1).getException().getMessage().contains("negative value -2"));
+        assertEquals(4, exchanges.get(2).getMessage().getBody());
+    }
+
+    @Test
+    @DisplayName("Should fail the whole batch when the result is not a list")
+    public void testInvalidBatchResult() throws Exception {
+        List<Exchange> exchanges = requestAll("direct:batchWrongResult", 1, 2);
+
+        for (Exchange exchange : exchanges) {
+            assertInstanceOf(PythonN2NException.class, exchange.getException());
+        }
+    }
+
+    @Test
+    @DisplayName("Should fail a batch that finds no room in the queue instead of blocking the batch thread")
+    public void testBlockedBatchFails() throws Exception {
+        // Given
+        CompletableFuture<Exchange> running = requestAsync("direct:batchBlocked", 1);
+        Thread.sleep(500);
+
+        // When
+        long start = System.currentTimeMillis();
+        Exchange blocked = requestAsync("direct:batchBlocked", 2).get();
+        long waited = System.currentTimeMillis() - start;
+
+        // Then
+        assertInstanceOf(RejectedExecutionException.class, blocked.getException());
+        assertTrue(waited < 3000, "Batch failed after " + waited + " ms");
+        assertNotNull(running.get().getException());
+    }
+
+    private List<List<?>> sendAll(String uri, Object... bodies) throws Exception {
+        List<List<?>> results = new ArrayList<>();
+        for (Exchange exchange : requestAll(uri, bodies)) {
+            assertNull(exchange.getException());
+            results.add(exchange.getMessage().getBody(List.class));
+        }
+        return results;
+    }
+
+    private List<Exchange> requestAll(String uri, Object... bodies) throws Exception {
+        List<CompletableFuture<Exchange>> futures = new ArrayList<>();
+        for (Object body : bodies) {
+            futures.add(requestAsync(uri, body));
+        }
+        List<Exchange> exchanges = new ArrayList<>();
+        for (CompletableFuture<Exchange> future : futures) {
+            exchanges.add(future.get());
+        }
+        return exchanges;
+    }
+
+    private CompletableFuture<Exchange> requestAsync(String uri, Object body) {
+        return template.asyncSend(uri, exchange -> {
+            exchange.setPattern(ExchangePattern.InOut);
+            exchange.getMessage().setBody(body);
+        });
+    }
+}
@@ -1,16 +1,38 @@
 package com.n2nlab.camel.python;
 
+import com.n2nlab.camel.python.exception.PythonScriptTimeoutException;
+import com.n2nlab.camel.python.model.PythonN2NResult;
+import org.apache.camel.AsyncProducer;
+import org.apache.camel.Exchange;
 import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.converter.stream.InputStreamCache;
 import org.apache.camel.test.junit5.CamelTestSupport;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 /**
  * Test class for {@link PythonN2NComponent}.
@@ -47,6 +69,42 @@ public class PythonN2NComponentTest extends CamelTestSupport {
                 from("direct:pythonTimeout")
                         .toF("pythonN2N:test?pythonScript=%s&timeout=1000",
                                 URLEncoder.encode("import time\ntime.sleep(2)\nresult = 'Done'", StandardCharsets.UTF_8));
+
+                from("direct:pythonPrint")
+                        .toF("pythonN2N:test?pythonScript=%s",
+                                URLEncoder.encode("for i in range(20000):\n    print('line', i)\nresult = body + 1", StandardCharsets.UTF_8));
+
+                from("direct:pythonNoisyStderr")
+                        .toF("pythonN2N:test?debug=true&returnFullOutput=true&maxOutputSize=1000&pythonScript=%s",
+                                URLEncoder.encode("import sys\nsys.stderr.write('x' * 200000)\nresult = 'done'", StandardCharsets.UTF_8));
+
+                from("direct:pythonVirtualThreads")
+                        .toF("pythonN2N:test?useVirtualThreads=true&pythonScript=%s",
+                                URLEncoder.encode("result = body * 3", StandardCharsets.UTF_8));
+
+                from("direct:pythonFilteredHeaders")
+                        .toF("pythonN2N:test?includeHeaders=keep*&excludeHeaders=keepNot&pythonScript=%s",
+                                URLEncoder.encode("result = sorted(headers)", StandardCharsets.UTF_8));
+
+                from("direct:pythonSkipUnreferenced")
+                        .toF("pythonN2N:skip?skipUnreferencedData=true&pythonScript=%s",
+                                URLEncoder.encode("result = body * 2", StandardCharsets.UTF_8));
+
+                from("direct:pythonIndirectHeaders")
+                        .toF("pythonN2N:indirect?pythonScript=%s",
+                                URLEncoder.encode("result = globals()['head' + 'ers']['name']", StandardCharsets.UTF_8));
+
+                from("direct:pythonResultType")
+                        .toF("pythonN2N:test?resultType=%s&pythonScript=%s", Score.class.getName(),
+                                URLEncoder.encode("result = {'name': body, 'value': len(body)}", StandardCharsets.UTF_8));
+
+                from("direct:pythonCached")
+                        .toF("pythonN2N:cached?resultCacheSize=10&resultCacheHeaders=tenant&pythonScript=%s",
+                                URLEncoder.encode("import uuid\nresult = [body, str(uuid.uuid4())]", StandardCharsets.UTF_8));
+
+                from("direct:pythonFileTransport")
+                        .toF("pythonN2N:test?transport=FILE&pythonScript=%s",
+                                URLEncoder.encode("print('ignored')\nresult = body + 1", StandardCharsets.UTF_8));
             }
         };
     }
@@ -92,4 +150,437 @@ public class PythonN2NComponentTest extends CamelTestSupport {
             template.requestBody("direct:pythonTimeout", null, Object.class);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should kill the script and the processes it started on timeout")
+    public void testTimeoutKillsProcessTree() throws Exception {
+        // Given
+        Path pidFile = tempDir.resolve("pids");
+        PythonN2NEndpoint endpoint = context.getEndpoint(
+                "pythonN2N:killTree?timeout=1000&timeoutGracePeriod=200", PythonN2NEndpoint.class);
+        endpoint.setPythonScript(String.format("""
+                import signal, subprocess, time
+                signal.signal(signal.SIGTERM, signal.SIG_IGN)
+                child = subprocess.Popen(['sleep', '60'])
+                with open(r'%s', 'w') as f:
+                    f.write('%%d %%d' %% (os.getpid(), child.pid))
+                time.sleep(60)
+                """, pidFile));
+        AsyncProducer producer = endpoint.createAsyncProducer();
+        producer.start();
+
+        try {
+            // When
+            Exchange exchange = endpoint.createExchange();
+            producer.process(exchange);
+
+            // Then
+            assertInstanceOf(PythonScriptTimeoutException.class, exchange.getException());
+            assertEquals(1000, ((PythonScriptTimeoutException) exchange.getException()).getTimeout());
+            for (String pid : Files.readString(pidFile).split(" ")) {
+                assertFalse(ProcessHandle.of(Long.parseLong(pid)).map(ProcessHandle::isAlive).orElse(false),
+                        "Process " + pid + " is still running");
+            }
+        } finally {
+            producer.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should pass data over pipes without temporary files")
+    public void testPipeTransport() throws Exception {
+        // Given
+        Path pythonTempDir = context.getComponent("pythonN2N", PythonN2NComponent.class).getTempDirectory();
+        Set<Path> before = listFiles(pythonTempDir);
+
+        // When
+        Object result = template.requestBody("direct:pythonPrint", 41, Object.class);
+
+        // Then
+        assertEquals(42, result);
+        assertEquals(before, listFiles(pythonTempDir));
+    }
+
+    @Test
+    @DisplayName("Should keep wrapper modules in a private directory and replace tampered ones")
+    public void testPrivateTempDirectory() throws Exception {
+        // Given
+        Path pythonTempDir = context.getComponent("pythonN2N", PythonN2NComponent.class).getTempDirectory();
+        PythonN2NWrapperScript wrapper = new PythonN2NWrapperScript("print('wrapper')", pythonTempDir, StandardCharsets.UTF_8);
+        wrapper.install();
+        String expected = Files.readString(wrapper.getPath());
+
+        // When
+        Files.writeString(wrapper.getPath(), "raise SystemExit('tampered')");
+        wrapper.install();
+
+        // Then
+        assertEquals(expected, Files.readString(wrapper.getPath()));
+        assertNotEquals(Paths.get(System.getProperty("java.io.tmpdir"), PythonN2NConstants.TEMP_DIR_NAME), pythonTempDir);
+        if (Files.getFileStore(pythonTempDir).supportsFileAttributeView("posix")) {
+            assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(pythonTempDir)));
+        }
+    }
+
+    @Test
+    @DisplayName("Should still support the file transport")
+    public void testFileTransport() throws Exception {
+        // When
+        Object result = template.requestBody("direct:pythonFileTransport", 1, Object.class);
+
+        // Then
+        assertEquals(2, result);
+    }
+
+    @Test
+    @DisplayName("Should generate the wrapper module once and reuse its cached bytecode")
+    public void testWrapperScriptReused() throws Exception {
+        // Given
+        Path pythonTempDir = context.getComponent("pythonN2N", PythonN2NComponent.class).getTempDirectory();
+        PythonN2NEndpoint endpoint = context.getEndpoint("pythonN2N:reused", PythonN2NEndpoint.class);
+        endpoint.setPythonScript("result = 'Hello, ' + str(body)");
+        PythonN2NProducer producer = (PythonN2NProducer) endpoint.createAsyncProducer();
+        producer.start();
+
+        try {
+            PythonN2NWrapperScript wrapperScript = producer.getWrapperScript();
+            process(endpoint, producer, "first");
+            Set<Path> afterFirst = listFiles(pythonTempDir);
+
+            // When
+            Exchange second = process(endpoint, producer, "second");
+
+            // Then
+            assertEquals("Hello, second", second.getMessage().getBody());
+            assertEquals(afterFirst, listFiles(pythonTempDir));
+            assertEquals(1, wrapperScript.getInstallCount());
+            try (Stream<Path> cached = Files.list(pythonTempDir.resolve("__pycache__"))) {
+                assertTrue(cached.anyMatch(path -> path.getFileName().toString()
+                        .startsWith(PythonN2NConstants.WRAPPER_MODULE_PREFIX)));
+            }
+
+            // A removed module is written again
+            Files.delete(wrapperScript.getPath());
+            Exchange third = process(endpoint, producer, "third");
+            assertEquals("Hello, third", third.getMessage().getBody());
+            assertEquals(2, wrapperScript.getInstallCount());
+        } finally {
+            producer.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should drain large stderr output without blocking and truncate the captured part")
+    public void testLargeStderrIsTruncated() {
+        // When
+        Exchange exchange = template.request("direct:pythonNoisyStderr", e -> e.getMessage().setBody(1));
+
+        // Then
+        assertNull(exchange.getException());
+        assertEquals("done", exchange.getMessage().getBody(PythonN2NResult.class).getResult());
+        String stderr = exchange.getProperty("pythonStderr", String.class);
+        assertTrue(stderr.contains("[output truncated, 1000 of "));
+        assertTrue(stderr.length() < 1100);
+    }
+
+    @Test
+    @DisplayName("Should complete exchanges asynchronously without blocking the caller")
+    public void testAsynchronousProcessing() throws Exception {
+        // Given
+        PythonN2NEndpoint endpoint = context.getEndpoint("pythonN2N:async", PythonN2NEndpoint.class);
+        endpoint.setPythonScript("import time\ntime.sleep(1)\nresult = body * 10");
+        AsyncProducer producer = endpoint.createAsyncProducer();
+        producer.start();
+        int exchanges = 5;
+        CountDownLatch done = new CountDownLatch(exchanges);
+        List<Exchange> sent = new ArrayList<>();
+
+        try {
+            // When
+            long start = System.currentTimeMillis();
+            for (int i = 0; i < exchanges; i++) {
+                Exchange exchange = endpoint.createExchange();
+                exchange.getMessage().setBody(i);
+                sent.add(exchange);
+                assertFalse(producer.process(exchange, doneSync -> done.countDown()));
+            }
+            long submitTime = System.currentTimeMillis() - start;
+
+            // Then
+            assertTrue(submitTime < 1000, "Submitting took " + submitTime + " ms");
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            for (int i = 0; i < exchanges; i++) {
+                assertNull(sent.get(i).getException());
+                assertEquals(i * 10, sent.get(i).getMessage().getBody());
+            }
+        } finally {
+            producer.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should cap the number of concurrent scripts and queue the rest")
+    public void testMaxConcurrentScripts() throws Exception {
+        // Given
+        PythonN2NEndpoint endpoint = context.getEndpoint("pythonN2N:capped?maxConcurrentScripts=1", PythonN2NEndpoint.class);
+        endpoint.setPythonScript("import time\ntime.sleep(0.5)\nresult = body");
+        AsyncProducer producer = endpoint.createAsyncProducer();
+        producer.start();
+        CountDownLatch done = new CountDownLatch(3);
+
+        try {
+            // When
+            long start = System.currentTimeMillis();
+            for (int i = 0; i < 3; i++) {
+                Exchange exchange = endpoint.createExchange();
+                exchange.getMessage().setBody(i);
+                producer.process(exchange, doneSync -> done.countDown());
+            }
+
+            // Then
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            long elapsed = System.currentTimeMillis() - start;
+            assertTrue(elapsed >= 1500, "Scripts ran concurrently, took " + elapsed + " ms");
+        } finally {
+            producer.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should fail fast when the script queue is full and the policy is ABORT")
+    public void testAbortRejectionPolicy() throws Exception {
+        // Given
+        PythonN2NEndpoint endpoint = context.getEndpoint(
+                "pythonN2N:abort?maxConcurrentScripts=1&maxQueuedScripts=1&rejectionPolicy=ABORT", PythonN2NEndpoint.class);
+        endpoint.setPythonScript("import time\ntime.sleep(0.5)\nresult = body");
+        AsyncProducer producer = endpoint.createAsyncProducer();
+        producer.start();
+        CountDownLatch done = new CountDownLatch(3);
+        List<Exchange> sent = new ArrayList<>();
+
+        try {
+            // When
+            for (int i = 0; i < 3; i++) {
+                Exchange exchange = endpoint.createExchange();
+                exchange.getMessage().setBody(i);
+                sent.add(exchange);
+                producer.process(exchange, doneSync -> done.countDown());
+            }
+
+            // Then
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertNull(sent.get(0).getException());
+            assertNull(sent.get(1).getException());
+            assertInstanceOf(RejectedExecutionException.class, sent.get(2).getException());
+        } finally {
+            producer.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should run scripts with virtual threads, or platform threads before Java 21")
+    public void testUseVirtualThreads() throws Exception {
+        // When
+        Object result = template.requestBody("direct:pythonVirtualThreads", 7, Object.class);
+
+        // Then
+        assertEquals(21, result);
+    }
+
+    @Test
+    @DisplayName("Should only send headers matching the include and exclude patterns")
+    public void testHeaderFiltering() throws Exception {
+        // When
+        Object result = template.requestBodyAndHeaders("direct:pythonFilteredHeaders", 1,
+                Map.of("keepA", 1, "keepB", "b", "keepNot", 2, "unserializable", new Object()), Object.class);
+
+        // Then
+        assertEquals(List.of("keepA", "keepB"), result);
+    }
+
+    @Test
+    @DisplayName("Should not send headers and properties the script does not reference when enabled")
+    public void testUnreferencedHeadersSkipped() throws Exception {
+        // When
+        Object result = template.requestBodyAndHeader("direct:pythonSkipUnreferenced", 4, "unserializable", new Object(), Object.class);
+
+        // Then
+        assertEquals(8, result);
+    }
+
+    @Test
+    @DisplayName("Should send headers by default even if the script does not name them")
+    public void testIndirectHeaderAccess() throws Exception {
+        // When
+        Object result = template.requestBodyAndHeader("direct:pythonIndirectHeaders", 1, "name", "value", Object.class);
+
+        // Then
+        assertEquals("value", result);
+    }
+
+    @Test
+    @DisplayName("Should bind the result to the configured result type")
+    public void testResultType() throws Exception {
+        // When
+        Object result = template.requestBody("direct:pythonResultType", "abc");
+
+        // Then
+        assertEquals(new Score("abc", 3), result);
+    }
+
+    @Test
+    @DisplayName("Should share one object mapper per data format across endpoints")
+    public void testSharedObjectMapper() {
+        // Given
+        PythonN2NComponent component = context.getComponent("pythonN2N", PythonN2NComponent.class);
+
+        // Then
+        assertSame(component.getObjectMapper(PythonN2NDataFormat.JSON), component.getObjectMapper(PythonN2NDataFormat.JSON));
+        assertNotSame(component.getObjectMapper(PythonN2NDataFormat.JSON), component.getObjectMapper(PythonN2NDataFormat.MSGPACK));
+    }
+
+    @Test
+    @DisplayName("Should exchange binary bodies as MessagePack")
+    public void testMessagePackDataFormat() throws Exception {
+        assumeTrue(isPythonModuleAvailable("msgpack"), "msgpack Python module is not installed");
+
+        // Given
+        PythonN2NEndpoint endpoint = context.getEndpoint("pythonN2N:msgpack?dataFormat=MSGPACK", PythonN2NEndpoint.class);
+        endpoint.setPythonScript("result = [type(body).__name__, len(body), body[::-1]]");
+        AsyncProducer producer = endpoint.createAsyncProducer();
+        producer.start();
+
+        try {
+            // When
+            Exchange exchange = endpoint.createExchange();
+            exchange.getMessage().setBody(new byte[] {1, 2, 3});
+            producer.process(exchange);
+
+            // Then
+            assertNull(exchange.getException());
+            List<?> result = exchange.getMessage().getBody(List.class);
+            assertEquals("bytes", result.get(0));
+            assertEquals(3, result.get(1));
+            assertArrayEquals(new byte[] {3, 2, 1}, (byte[]) result.get(2));
+        } finally {
+            producer.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should fail to start when the data format module is missing")
+    public void testMessagePackModuleMissing() throws Exception {
+        assumeFalse(isPythonModuleAvailable("msgpack"), "msgpack Python module is installed");
+
+        // Given
+        PythonN2NEndpoint endpoint = context.getEndpoint("pythonN2N:msgpackMissing?dataFormat=MSGPACK", PythonN2NEndpoint.class);
+        endpoint.setPythonScript("result = body");
+        AsyncProducer producer = endpoint.createAsyncProducer();
+
+        // When/Then
+        assertThrows(IllegalStateException.class, producer::start);
+    }
+
+    @Test
+    @DisplayName("Should answer repeated inputs from the result cache without running the script")
+    public void testResultCache() throws Exception {
+        // When
+        List<?> first = template.requestBodyAndHeader("direct:pythonCached", "a", "tenant", "x", List.class);
+        List<?> second = template.requestBodyAndHeaders("direct:pythonCached", "a",
+                Map.of("tenant", "x", "ignored", "y"), List.class);
+        List<?> otherTenant = template.requestBodyAndHeader("direct:pythonCached", "a", "tenant", "z", List.class);
+        List<?> otherBody = template.requestBodyAndHeader("direct:pythonCached", "b", "tenant", "x", List.class);
+
+        // Then
+        assertEquals(first, second);
+        assertNotSame(first, second);
+        assertNotEquals(first.get(1), otherTenant.get(1));
+        assertNotEquals(first.get(1), otherBody.get(1));
+
+        PythonN2NEndpoint endpoint = context.getEndpoints().stream()
+                .filter(PythonN2NEndpoint.class::isInstance)
+                .map(PythonN2NEndpoint.class::cast)
+                .filter(e -> e.getResultCacheSize() > 0)
+                .findFirst()
+                .orElseThrow();
+        assertEquals(1, endpoint.getResultCacheHits());
+        assertEquals(3, endpoint.getResultCacheMisses());
+        assertEquals(3, endpoint.getResultCacheEntries());
+    }
+
+    @Test
+    @DisplayName("Should reject the result cache together with streamBody")
+    public void testResultCacheWithStreamBodyRejected() throws Exception {
+        // Given
+        PythonN2NEndpoint endpoint = context.getEndpoint(
+                "pythonN2N:cachedStream?streamBody=true&resultCacheSize=10", PythonN2NEndpoint.class);
+        endpoint.setPythonScript("result = body.read()");
+        AsyncProducer producer = endpoint.createAsyncProducer();
+
+        // When/Then
+        assertThrows(IllegalArgumentException.class, producer::start);
+    }
+
+    @Test
+    @DisplayName("Should hash stream cache bodies by content without consuming them")
+    public void testResultCacheKeyForStreamBodies() throws Exception {
+        // Given
+        PythonN2NEndpoint endpoint = context.getEndpoint(
+                "pythonN2N:cachedStreamKey?resultCacheSize=10", PythonN2NEndpoint.class);
+        endpoint.setPythonScript("result = body");
+        PythonN2NProducer producer = (PythonN2NProducer) endpoint.createAsyncProducer();
+        producer.start();
+
+        try {
+            Exchange cachedBody = endpoint.createExchange();
+            cachedBody.getMessage().setBody(new InputStreamCache("abc".getBytes(StandardCharsets.UTF_8)));
+            Exchange bytesBody = endpoint.createExchange();
+            bytesBody.getMessage().setBody("abc".getBytes(StandardCharsets.UTF_8));
+            InputStream stream = new ByteArrayInputStream("abc".getBytes(StandardCharsets.UTF_8));
+            Exchange streamBody = endpoint.createExchange();
+            streamBody.getMessage().setBody(stream);
+
+            // When
+            String first = producer.createCacheKey(cachedBody);
+            String second = producer.createCacheKey(cachedBody);
+
+            // Then
+            assertEquals(first, second);
+            assertEquals(producer.createCacheKey(bytesBody), first);
+            assertEquals("abc", new String(((InputStream) cachedBody.getMessage().getBody()).readAllBytes(),
+                    StandardCharsets.UTF_8));
+            assertNull(producer.createCacheKey(streamBody));
+            assertEquals(3, stream.available());
+        } finally {
+            producer.stop();
+        }
+    }
+
+    public record Score(String name, int value) {
+    }
+
+    private static Exchange process(PythonN2NEndpoint endpoint, AsyncProducer producer, Object body) throws Exception {
+        Exchange exchange = endpoint.createExchange();
+        exchange.getMessage().setBody(body);
+        producer.process(exchange);
+        assertNull(exchange.getException());
+        return exchange;
+    }
+
+    private static boolean isPythonModuleAvailable(String module) throws Exception {
+        return new ProcessBuilder("python3", "-c", "import " + module)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start()
+                .waitFor() == 0;
+    }
+
+    private static Set<Path> listFiles(Path dir) throws Exception {
+        if (!Files.isDirectory(dir)) {
+            return Set.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(Files::isRegularFile).collect(Collectors.toSet());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.n2nlab.camel.python;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link PythonN2NInterpreters}.
+ */
+public class PythonN2NInterpretersTest {
+
+    private final PythonN2NInterpreters interpreters = new PythonN2NInterpreters();
+
+    @Test
+    @DisplayName("Should resolve and verify the default interpreter with a single probe")
+    public void testInstallationProbedOnce() {
+        // When
+        String executable = interpreters.resolveExecutable(null);
+        interpreters.verifyInstallation(executable);
+        int probes = interpreters.getProbeCount();
+        interpreters.verifyInstallation(interpreters.resolveExecutable(""));
+
+        // Then
+        assertEquals(probes, interpreters.getProbeCount());
+        assertTrue(interpreters.verifyInstallation(executable).startsWith("Python"));
+    }
+
+    @Test
+    @DisplayName("Should check the same set of modules only once")
+    public void testModulesProbedOnce() {
+        // Given
+        String executable = interpreters.resolveExecutable(null);
+        int probes = interpreters.getProbeCount();
+
+        // When
+        interpreters.verifyModules(executable, "json, os");
+        interpreters.verifyModules(executable, "os,json");
+
+        // Then
+        assertEquals(probes + 1, interpreters.getProbeCount());
+    }
+
+    @Test
+    @DisplayName("Should cache missing modules as a failure")
+    public void testMissingModuleCached() {
+        // Given
+        String executable = interpreters.resolveExecutable(null);
+        int probes = interpreters.getProbeCount();
+
+        // When/Then
+        assertThrows(IllegalStateException.class, () -> interpreters.verifyModules(executable, "no_such_module_n2n"));
+        assertThrows(IllegalStateException.class, () -> interpreters.verifyModules(executable, "no_such_module_n2n"));
+        assertEquals(probes + 1, interpreters.getProbeCount());
+    }
+
+    @Test
+    @DisplayName("Should not cache a probe that failed unexpectedly")
+    public void testUnexpectedFailureNotCached() {
+        // When/Then: a null command makes ProcessBuilder throw instead of failing to start
+        assertThrows(NullPointerException.class, () -> interpreters.verifyInstallation(null));
+        assertThrows(NullPointerException.class, () -> interpreters.verifyInstallation(null));
+        assertEquals(2, interpreters.getProbeCount());
+    }
+
+    @Test
+    @DisplayName("Should use a configured interpreter without probing")
+    public void testCustomExecutable() {
+        // When
+        String executable = interpreters.resolveExecutable("/opt/python/bin/python3");
+
+        // Then
+        assertEquals("/opt/python/bin/python3", executable);
+        assertEquals(0, interpreters.getProbeCount());
+    }
+}
@@ -0,0 +1,81 @@
+package com.n2nlab.camel.python;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link PythonN2NResultCache}.
+ */
+public class PythonN2NResultCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    @DisplayName("Should evict the least recently used result when full")
+    public void testLeastRecentlyUsedEviction() {
+        // Given
+        PythonN2NResultCache cache = new PythonN2NResultCache(2, 0, 0, clock::get);
+        cache.put("a", bytes("1"));
+        cache.put("b", bytes("2"));
+        cache.get("a");
+
+        // When
+        cache.put("c", bytes("3"));
+
+        // Then
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertEquals(1, cache.getEvictions());
+        assertEquals(3, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    @DisplayName("Should expire results after the time to live")
+    public void testTimeToLive() {
+        // Given
+        PythonN2NResultCache cache = new PythonN2NResultCache(10, 1000, 0, clock::get);
+        cache.put("a", bytes("1"));
+
+        // When
+        clock.set(999);
+        byte[] beforeExpiry = cache.get("a");
+        clock.set(1000);
+        byte[] afterExpiry = cache.get("a");
+
+        // Then
+        assertNotNull(beforeExpiry);
+        assertNull(afterExpiry);
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getBytes());
+    }
+
+    @Test
+    @DisplayName("Should bound the total size of the cached results")
+    public void testByteBound() {
+        // Given
+        PythonN2NResultCache cache = new PythonN2NResultCache(10, 0, 10, clock::get);
+        cache.put("a", bytes("12345"));
+        cache.put("b", bytes("12345"));
+
+        // When
+        cache.put("c", bytes("123"));
+        cache.put("large", bytes("12345678901"));
+
+        // Then
+        assertNull(cache.get("a"));
+        assertNull(cache.get("large"));
+        assertEquals(2, cache.size());
+        assertEquals(8, cache.getBytes());
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
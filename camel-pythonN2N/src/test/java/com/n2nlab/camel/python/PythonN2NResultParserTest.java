@@ -0,0 +1,58 @@
+package com.n2nlab.camel.python;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.n2nlab.camel.python.model.PythonN2NResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link PythonN2NResultParser}.
+ */
+public class PythonN2NResultParserTest {
+
+    private static final String OUTPUT = """
+            {"debugInfo": {"stdout": ["a", "b"], "runtimeInfo": {"nested": [1, 2, {"x": null}]}},
+             "result": [1, 2, 3],
+             "errors": {"1": "failed"}}
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should skip debug info unless the full output is requested")
+    public void testSkipsDebugInfo() throws Exception {
+        // Given
+        PythonN2NResultParser parser = new PythonN2NResultParser(objectMapper,
+                objectMapper.constructType(Object.class), false);
+
+        // When
+        PythonN2NResult<?> result = parser.parse(OUTPUT.getBytes(StandardCharsets.UTF_8));
+
+        // Then
+        assertEquals(List.of(1, 2, 3), result.getResult());
+        assertEquals(Map.of("1", "failed"), result.getErrors());
+        assertNull(result.getDebugInfo());
+    }
+
+    @Test
+    @DisplayName("Should bind the whole output when the full output is requested")
+    public void testFullOutput() throws Exception {
+        // Given
+        PythonN2NResultParser parser = new PythonN2NResultParser(objectMapper,
+                objectMapper.constructType(int[].class), true);
+
+        // When
+        PythonN2NResult<?> result = parser.parse(new ByteArrayInputStream(OUTPUT.getBytes(StandardCharsets.UTF_8)));
+
+        // Then
+        assertArrayEquals(new int[] {1, 2, 3}, (int[]) result.getResult());
+        assertEquals(List.of("a", "b"), result.getDebugInfo().get("stdout"));
+    }
+}
@@ -0,0 +1,122 @@
+package com.n2nlab.camel.python;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link PythonN2NScriptLimiter}.
+ */
+public class PythonN2NScriptLimiterTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should run no more tasks at a time than the limit on an unbounded executor")
+    public void testConcurrencyBound() throws Exception {
+        // Given
+        PythonN2NScriptLimiter limiter = new PythonN2NScriptLimiter(executor, 2, -1, PythonN2NRejectionPolicy.BLOCK, () -> -1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(10);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            limiter.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(50);
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        // Then
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(2, maxRunning.get());
+    }
+
+    @Test
+    @DisplayName("Should apply the rejection policy once the queue is full")
+    public void testRejectionPolicy() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        PythonN2NScriptLimiter aborting = new PythonN2NScriptLimiter(executor, 1, 1, PythonN2NRejectionPolicy.ABORT, () -> -1);
+        PythonN2NScriptLimiter callerRuns = new PythonN2NScriptLimiter(executor, 1, 0, PythonN2NRejectionPolicy.CALLER_RUNS, () -> -1);
+        Runnable blocked = () -> await(release);
+
+        // When
+        aborting.execute(blocked);
+        aborting.execute(blocked);
+        callerRuns.execute(blocked);
+        Thread[] caller = new Thread[1];
+        callerRuns.execute(() -> caller[0] = Thread.currentThread());
+
+        // Then
+        assertThrows(RejectedExecutionException.class, () -> aborting.execute(blocked));
+        assertSame(Thread.currentThread(), caller[0]);
+
+        release.countDown();
+        CountDownLatch admitted = new CountDownLatch(1);
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            while (admitted.getCount() > 0) {
+                try {
+                    aborting.execute(admitted::countDown);
+                } catch (RejectedExecutionException e) {
+                    sleep(10);
+                }
+            }
+            admitted.await();
+        });
+    }
+
+    @Test
+    @DisplayName("Should stop blocking after the block timeout")
+    public void testBlockTimeout() {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        PythonN2NScriptLimiter limiter = new PythonN2NScriptLimiter(executor, 1, 0, PythonN2NRejectionPolicy.BLOCK, () -> 200);
+        limiter.execute(() -> await(release));
+
+        try {
+            // When
+            long start = System.currentTimeMillis();
+            assertThrows(RejectedExecutionException.class, () -> limiter.execute(() -> { }));
+
+            // Then
+            assertTrue(System.currentTimeMillis() - start >= 200);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
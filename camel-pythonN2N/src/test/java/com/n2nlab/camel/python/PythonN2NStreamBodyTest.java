@@ -0,0 +1,139 @@
+package com.n2nlab.camel.python;
+
+import org.apache.camel.AsyncProducer;
+import org.apache.camel.StreamCache;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.test.junit5.CamelTestSupport;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for streaming bodies through Python with {@code streamBody}.
+ */
+public class PythonN2NStreamBodyTest extends CamelTestSupport {
+
+    @TempDir
+    Path tempDir;
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+            @Override
+            public void configure() {
+                context.addComponent("pythonN2N", new PythonN2NComponent());
+
+                from("direct:upper")
+                        .toF("pythonN2N:upper?streamBody=true&pythonScript=%s",
+                                URLEncoder.encode("""
+                                        print('ignored')
+                                        for chunk in iter(lambda: body.read(65536), b''):
+                                            output.write(chunk.upper())
+                                        """, StandardCharsets.UTF_8));
+
+                from("direct:count")
+                        .toF("pythonN2N:count?streamBody=true&pythonScript=%s",
+                                URLEncoder.encode("""
+                                        size = 0
+                                        for chunk in iter(lambda: body.read(65536), b''):
+                                            size += len(chunk)
+                                        result = '%s:%d' % (headers['name'], size)
+                                        """, StandardCharsets.UTF_8));
+
+                from("direct:file")
+                        .toF("pythonN2N:file?streamBody=true&pythonScript=%s",
+                                URLEncoder.encode("import mmap\nresult = mmap.mmap(body.fileno(), 0, access=mmap.ACCESS_READ)[:6]",
+                                        StandardCharsets.UTF_8));
+
+                from("direct:failing")
+                        .toF("pythonN2N:failing?streamBody=true&pythonScript=%s",
+                                URLEncoder.encode("raise ValueError('bad input')", StandardCharsets.UTF_8));
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Should stream the body through the script into a stream cache")
+    public void testStreamBody() throws Exception {
+        // When
+        Object result = template.requestBody("direct:upper", new ByteArrayInputStream("hello stream".getBytes()));
+
+        // Then
+        assertInstanceOf(StreamCache.class, result);
+        assertEquals("HELLO STREAM", context.getTypeConverter().convertTo(String.class, result));
+    }
+
+    @Test
+    @DisplayName("Should stream a large body without building the exchange data in memory")
+    public void testLargeStreamBody() throws Exception {
+        // Given
+        byte[] data = new byte[32 * 1024 * 1024];
+        Arrays.fill(data, (byte) 'a');
+
+        // When
+        Object result = template.requestBody("direct:upper", new ByteArrayInputStream(data));
+
+        // Then
+        try (InputStream in = context.getTypeConverter().convertTo(InputStream.class, result)) {
+            byte[] output = in.readAllBytes();
+            assertEquals(data.length, output.length);
+            assertEquals('A', output[output.length - 1]);
+        }
+    }
+
+    @Test
+    @DisplayName("Should write a string result with the headers still available")
+    public void testStringResult() throws Exception {
+        // When
+        Object result = template.requestBodyAndHeader("direct:count", new byte[1000], "name", "zeros");
+
+        // Then
+        assertEquals("zeros:1000", context.getTypeConverter().convertTo(String.class, result));
+    }
+
+    @Test
+    @DisplayName("Should let the script open file bodies directly")
+    public void testFileBody() throws Exception {
+        // Given
+        Path file = tempDir.resolve("input.txt");
+        Files.writeString(file, "mapped file content");
+
+        // When
+        Object result = template.requestBody("direct:file", file.toFile());
+
+        // Then
+        assertEquals("mapped", context.getTypeConverter().convertTo(String.class, result));
+    }
+
+    @Test
+    @DisplayName("Should fail the exchange when the script fails")
+    public void testScriptFailure() {
+        // When/Then
+        Exception exception = assertThrows(Exception.class,
+                () -> template.requestBody("direct:failing", "data"));
+        assertTrue(exception.getCause().getMessage().contains("bad input"));
+    }
+
+    @Test
+    @DisplayName("Should reject streamBody in WORKER_POOL mode")
+    public void testWorkerPoolRejected() throws Exception {
+        // Given
+        PythonN2NEndpoint endpoint = context.getEndpoint(
+                "pythonN2N:pool?streamBody=true&executionMode=WORKER_POOL", PythonN2NEndpoint.class);
+        endpoint.setPythonScript("result = body.read()");
+        AsyncProducer producer = endpoint.createAsyncProducer();
+
+        // When/Then
+        assertThrows(IllegalArgumentException.class, producer::start);
+    }
+}
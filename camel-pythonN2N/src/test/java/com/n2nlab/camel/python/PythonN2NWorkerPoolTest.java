@@ -0,0 +1,218 @@
+package com.n2nlab.camel.python;
+
+import com.n2nlab.camel.python.exception.PythonScriptTimeoutException;
+import org.apache.camel.AsyncProducer;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.test.junit5.CamelTestSupport;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the {@link PythonN2NExecutionMode#WORKER_POOL} execution mode.
+ */
+public class PythonN2NWorkerPoolTest extends CamelTestSupport {
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+            @Override
+            public void configure() {
+                context.addComponent("pythonN2N", new PythonN2NComponent());
+
+                from("direct:pool")
+                        .toF("pythonN2N:pool?executionMode=WORKER_POOL&maxWorkers=2&pythonScript=%s",
+                                URLEncoder.encode("result = body * 2", StandardCharsets.UTF_8));
+
+                from("direct:poolPid")
+                        .toF("pythonN2N:poolPid?executionMode=WORKER_POOL&maxWorkers=1&maxRequestsPerWorker=%d&pythonScript=%s",
+                                2, URLEncoder.encode("print('noise')\nresult = os.getpid()", StandardCharsets.UTF_8));
+
+                PythonN2NEndpoint templateEndpoint = getContext().getEndpoint(String.format(
+                        "pythonN2N:poolTemplate?executionMode=WORKER_POOL&requiredModules=math&pythonScript=%s",
+                        URLEncoder.encode("result = triple(math.floor(body))", StandardCharsets.UTF_8)),
+                        PythonN2NEndpoint.class);
+                templateEndpoint.setScriptTemplate("def triple(value):\n    return value * 3");
+                from("direct:poolTemplate")
+                        .to(templateEndpoint);
+
+                PythonN2NEndpoint globalsEndpoint = getContext().getEndpoint(String.format(
+                        "pythonN2N:poolGlobals?executionMode=WORKER_POOL&maxWorkers=1&pythonScript=%s",
+                        URLEncoder.encode("seen = 'previous' in globals()\nprevious = body\n"
+                                + "result = [doubled(), seen, sys.version_info[0], data['body']]", StandardCharsets.UTF_8)),
+                        PythonN2NEndpoint.class);
+                globalsEndpoint.setScriptTemplate("def doubled():\n    return body * 2");
+                from("direct:poolGlobals")
+                        .to(globalsEndpoint);
+
+                PythonN2NEndpoint slowStartEndpoint = getContext().getEndpoint(String.format(
+                        "pythonN2N:poolSlowStart?executionMode=WORKER_POOL&minWorkers=0&maxWorkers=1&timeout=1000&pythonScript=%s",
+                        URLEncoder.encode("result = body", StandardCharsets.UTF_8)), PythonN2NEndpoint.class);
+                slowStartEndpoint.setScriptTemplate("import time\ntime.sleep(30)");
+                from("direct:poolSlowStart")
+                        .to(slowStartEndpoint);
+
+                from("direct:poolError")
+                        .toF("pythonN2N:poolError?executionMode=WORKER_POOL&maxWorkers=1&pythonScript=%s",
+                                URLEncoder.encode("if body == 'fail':\n    raise ValueError('boom')\nresult = body",
+                                        StandardCharsets.UTF_8));
+
+                from("direct:poolTimeout")
+                        .toF("pythonN2N:poolTimeout?executionMode=WORKER_POOL&maxWorkers=1&timeout=1000&pythonScript=%s",
+                                URLEncoder.encode("import time\ntime.sleep(body)\nresult = 'Done'", StandardCharsets.UTF_8));
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Should execute scripts on pooled workers")
+    public void testSimpleScript() {
+        assertEquals(10, template.requestBody("direct:pool", 5, Object.class));
+        assertEquals("abab", template.requestBody("direct:pool", "ab", Object.class));
+    }
+
+    @Test
+    @DisplayName("Should reuse workers and recycle them after maxRequestsPerWorker")
+    public void testWorkerReuseAndRecycling() {
+        Object first = template.requestBody("direct:poolPid", null, Object.class);
+        Object second = template.requestBody("direct:poolPid", null, Object.class);
+        Object third = template.requestBody("direct:poolPid", null, Object.class);
+
+        assertEquals(first, second);
+        assertNotEquals(second, third);
+    }
+
+    @Test
+    @DisplayName("Should load required modules and templates once per worker")
+    public void testModulesAndTemplate() {
+        assertEquals(21, template.requestBody("direct:poolTemplate", 7.5, Object.class));
+    }
+
+    @Test
+    @DisplayName("Should run template functions against the globals of the current exchange")
+    public void testTemplateSeesRequestGlobals() {
+        assertEquals(List.of(10, false, 3, 5), template.requestBody("direct:poolGlobals", 5, List.class));
+        assertEquals(List.of(14, false, 3, 7), template.requestBody("direct:poolGlobals", 7, List.class));
+    }
+
+    @Test
+    @DisplayName("Should apply the timeout to starting a worker")
+    public void testStartTimeout() {
+        long start = System.currentTimeMillis();
+        Exception exception = assertThrows(Exception.class,
+                () -> template.requestBody("direct:poolSlowStart", 1, Object.class));
+
+        assertInstanceOf(PythonScriptTimeoutException.class, exception.getCause());
+        assertTrue(System.currentTimeMillis() - start < 10000);
+    }
+
+    @Test
+    @DisplayName("Should keep timing out requests while a replacement worker hangs during startup")
+    public void testReplacementWorkerHangs() throws Exception {
+        // Given
+        Path marker = Files.createTempFile("pythonN2N-hang", ".marker");
+        Files.delete(marker);
+        PythonN2NEndpoint endpoint = context.getEndpoint("pythonN2N:poolHangingReplacement?executionMode=WORKER_POOL"
+                + "&minWorkers=1&maxWorkers=2&maxRequestsPerWorker=1&workerIdleTimeout=200&timeout=1000",
+                PythonN2NEndpoint.class);
+        endpoint.setScriptTemplate(String.format(
+                "import time\nif os.path.exists(%s):\n    time.sleep(30)", pythonString(marker)));
+        endpoint.setPythonScript("import time\ntime.sleep(body)\nresult = body");
+        AsyncProducer producer = endpoint.createAsyncProducer();
+        producer.start();
+
+        try {
+            // The only worker retires after this request, its replacement hangs while starting
+            assertEquals(0, process(endpoint, producer, 0).getMessage().getBody());
+            Files.createFile(marker);
+            Thread.sleep(500);
+
+            // When
+            long start = System.currentTimeMillis();
+            Exchange startup = process(endpoint, producer, 0);
+            long startupTime = System.currentTimeMillis() - start;
+            Files.delete(marker);
+            Thread.sleep(1500);
+            start = System.currentTimeMillis();
+            Exchange request = process(endpoint, producer, 5);
+            long requestTime = System.currentTimeMillis() - start;
+
+            // Then
+            assertInstanceOf(PythonScriptTimeoutException.class, startup.getException());
+            assertTrue(startupTime < 5000, "Startup timed out after " + startupTime + " ms");
+            assertInstanceOf(PythonScriptTimeoutException.class, request.getException());
+            assertTrue(requestTime < 5000, "Request timed out after " + requestTime + " ms");
+            assertEquals(0, process(endpoint, producer, 0).getMessage().getBody());
+        } finally {
+            producer.stop();
+            Files.deleteIfExists(marker);
+        }
+    }
+
+    @Test
+    @DisplayName("Should report script errors and keep the worker usable")
+    public void testScriptError() {
+        Exception exception = assertThrows(Exception.class,
+                () -> template.requestBody("direct:poolError", "fail", Object.class));
+        assertTrue(exception.getCause().getMessage().contains("boom"));
+
+        assertEquals("ok", template.requestBody("direct:poolError", "ok", Object.class));
+    }
+
+    @Test
+    @DisplayName("Should replace a worker that exceeded the timeout")
+    public void testTimeout() {
+        assertThrows(Exception.class, () -> template.requestBody("direct:poolTimeout", 2, Object.class));
+        assertEquals("Done", template.requestBody("direct:poolTimeout", 0, Object.class));
+    }
+
+    @Test
+    @DisplayName("Should serve concurrent exchanges")
+    public void testConcurrentExchanges() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                int value = i;
+                Callable<Object> call = () -> template.requestBody("direct:pool", value, Object.class);
+                futures.add(executor.submit(call));
+            }
+            Set<Object> results = new HashSet<>();
+            for (Future<Object> future : futures) {
+                results.add(future.get());
+            }
+            assertEquals(20, results.size());
+            for (int i = 0; i < 20; i++) {
+                assertTrue(results.contains(i * 2));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Exchange process(PythonN2NEndpoint endpoint, AsyncProducer producer, Object body) throws Exception {
+        Exchange exchange = endpoint.createExchange();
+        exchange.getMessage().setBody(body);
+        producer.process(exchange);
+        return exchange;
+    }
+
+    private static String pythonString(Path path) {
+        return "'" + path.toAbsolutePath().toString().replace("\\", "\\\\").replace("'", "\\'") + "'";
+    }
+}
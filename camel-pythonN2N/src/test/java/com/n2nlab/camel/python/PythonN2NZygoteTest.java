@@ -0,0 +1,113 @@
+package com.n2nlab.camel.python;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.test.junit5.CamelTestSupport;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the {@link PythonN2NExecutionMode#ZYGOTE} execution mode.
+ */
+public class PythonN2NZygoteTest extends CamelTestSupport {
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+            @Override
+            public void configure() {
+                context.addComponent("pythonN2N", new PythonN2NComponent());
+
+                // Module state changed by the script must not leak into the next exchange
+                from("direct:zygote")
+                        .toF("pythonN2N:zygote?executionMode=ZYGOTE&maxWorkers=1&requiredModules=math&pythonScript=%s",
+                                URLEncoder.encode("""
+                                        math.calls = getattr(math, 'calls', 0) + 1
+                                        result = [math.calls, os.getpid(), os.getppid(), body * 2]
+                                        """, StandardCharsets.UTF_8));
+
+                from("direct:zygotePrint")
+                        .toF("pythonN2N:zygotePrint?executionMode=ZYGOTE&maxWorkers=1&pythonScript=%s",
+                                URLEncoder.encode("print('printed by ' + body)\nresult = body", StandardCharsets.UTF_8));
+
+                from("direct:zygoteCrash")
+                        .toF("pythonN2N:zygoteCrash?executionMode=ZYGOTE&maxWorkers=1&pythonScript=%s",
+                                URLEncoder.encode("if body == 'crash':\n    os._exit(3)\nresult = body",
+                                        StandardCharsets.UTF_8));
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Should run every exchange in a fresh child of the same zygote")
+    public void testForkPerExchange() {
+        Set<Object> pids = new HashSet<>();
+        Set<Object> parents = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            List<?> result = template.requestBody("direct:zygote", i, List.class);
+            assertEquals(1, result.get(0));
+            assertEquals(i * 2, result.get(3));
+            pids.add(result.get(1));
+            parents.add(result.get(2));
+        }
+
+        assertEquals(3, pids.size());
+        assertEquals(1, parents.size());
+    }
+
+    @Test
+    @DisplayName("Should survive a child that exits without replying")
+    public void testCrashedChild() {
+        Exception exception = assertThrows(Exception.class,
+                () -> template.requestBody("direct:zygoteCrash", "crash", Object.class));
+        assertTrue(exception.getCause().getMessage().contains("before replying"));
+
+        assertEquals("ok", template.requestBody("direct:zygoteCrash", "ok", Object.class));
+    }
+
+    @Test
+    @DisplayName("Should forward what the child printed before it exits")
+    public void testChildOutputForwarded() throws Exception {
+        // Given
+        Logger logger = (Logger) LoggerFactory.getLogger(PythonN2NWorker.class);
+        Level level = logger.getLevel();
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+        logger.setLevel(Level.DEBUG);
+
+        try {
+            // When
+            Object result = template.requestBody("direct:zygotePrint", "child", Object.class);
+
+            // Then
+            assertEquals("child", result);
+            long deadline = System.currentTimeMillis() + 5000;
+            while (!hasMessage(appender, "printed by child") && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertTrue(hasMessage(appender, "printed by child"));
+        } finally {
+            logger.detachAppender(appender);
+            logger.setLevel(level);
+        }
+    }
+
+    private static boolean hasMessage(ListAppender<ILoggingEvent> appender, String text) {
+        synchronized (appender.list) {
+            return appender.list.stream().anyMatch(event -> event.getFormattedMessage().contains(text));
+        }
+    }
+}
@@ -18,6 +18,9 @@ import java.util.Map;
 public class RubyComponent extends DefaultComponent {
     private static final Logger LOG = LoggerFactory.getLogger(RubyComponent.class);
 
+    // Scripts of this CamelContext; IDs not registered here fall back to the JVM-wide registry
+    private final RubyScriptRegistry scriptRegistry = new RubyScriptRegistry(RubyScriptRegistry.global());
+
     @Override
     protected Endpoint createEndpoint(String uri, String remaining, Map<String, Object> parameters) throws Exception {
         if (remaining == null || remaining.trim().length() == 0) {
@@ -41,4 +44,11 @@ public class RubyComponent extends DefaultComponent {
 
         return endpoint;
     }
-}
\ No newline at end of file
+
+    /**
+     * @return The script registry scoped to the CamelContext of this component
+     */
+    public RubyScriptRegistry getScriptRegistry() {
+        return scriptRegistry;
+    }
+}
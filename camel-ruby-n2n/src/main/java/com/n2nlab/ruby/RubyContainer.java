@@ -0,0 +1,126 @@
+package com.n2nlab.ruby;
+
+import org.apache.camel.Exchange;
+import org.jruby.Ruby;
+import org.jruby.RubyThread;
+import org.jruby.embed.EmbedEvalUnit;
+import org.jruby.embed.LocalContextScope;
+import org.jruby.embed.LocalVariableBehavior;
+import org.jruby.embed.ScriptingContainer;
+import org.jruby.javasupport.JavaEmbedUtils;
+import org.jruby.javasupport.JavaUtil;
+import org.jruby.runtime.DynamicScope;
+import org.jruby.runtime.builtin.IRubyObject;
+
+/**
+ * An isolated Ruby runtime used by one exchange at a time.
+ * <p>
+ * Each container owns its own {@link ScriptingContainer}, so the globals set for an exchange
+ * cannot be overwritten by exchanges running concurrently in other containers.
+ */
+class RubyContainer {
+
+    // Thread-local key through which the helpers reach the exchange of the current invocation
+    private static final String EXCHANGE_KEY = "__camel_exchange__";
+
+    // Defined once per Ruby runtime; the helpers never read the $exchange global
+    private static final String HELPER_FUNCTIONS = """
+        def __camel_exchange__
+          Thread.current[:__camel_exchange__] or raise 'No Camel exchange is bound to the current script invocation'
+        end
+
+        def set_body(val)
+          __camel_exchange__.getMessage().setBody(val)
+        end
+
+        def set_header(name, val)
+          __camel_exchange__.getMessage().setHeader(name, val)
+        end
+
+        def get_header(name)
+          __camel_exchange__.getMessage().getHeader(name)
+        end
+
+        def set_exchange_property(name, val)
+          __camel_exchange__.setProperty(name, val)
+        end
+
+        def get_exchange_property(name)
+          __camel_exchange__.getProperty(name)
+        end
+        """;
+
+    private final ScriptingContainer container;
+
+    RubyContainer() {
+        container = new ScriptingContainer(LocalContextScope.SINGLETHREAD, LocalVariableBehavior.PERSISTENT);
+        container.runScriptlet(HELPER_FUNCTIONS);
+    }
+
+    /**
+     * Run a script against the given exchange.
+     *
+     * @param exchange The exchange exposed to the script
+     * @param script The Ruby script
+     * @param cacheScript Whether to reuse the compiled form of the script
+     * @return The value of the last expression of the script converted to Java
+     */
+    Object run(Exchange exchange, RubyScript script, boolean cacheScript) {
+        bindExchange(exchange);
+        try {
+            // Set up global variables
+            container.put("$exchange", exchange);
+            container.put("$message", exchange.getMessage());
+            container.put("$body", exchange.getMessage().getBody());
+            container.put("$headers", exchange.getMessage().getHeaders());
+            container.put("$properties", exchange.getProperties());
+
+            if (cacheScript) {
+                EmbedEvalUnit unit = script.compile(this);
+                resetLocalVariables(unit);
+                return JavaEmbedUtils.rubyToJava(unit.run());
+            }
+            return container.runScriptlet(script.getSource());
+        } finally {
+            bindExchange(null);
+            container.clear();
+        }
+    }
+
+    /**
+     * Parse a script in this runtime.
+     *
+     * @param source The Ruby script source
+     * @return The compiled script, only valid for this runtime
+     */
+    EmbedEvalUnit parse(String source) {
+        return container.parse(source);
+    }
+
+    /**
+     * Reset the local variables of a compiled script to nil. A compiled unit keeps its top-level
+     * scope between runs, which {@link ScriptingContainer#clear()} does not touch, so without this
+     * a variable such as {@code x ||= $body} would keep the value of a previous exchange.
+     */
+    private void resetLocalVariables(EmbedEvalUnit unit) {
+        DynamicScope scope = unit.getLocalVarScope();
+        IRubyObject nil = container.getProvider().getRuntime().getNil();
+        for (int i = 0; i < scope.getStaticScope().getNumberOfVariables(); i++) {
+            scope.setValueDepthZeroVoid(nil, i);
+        }
+    }
+
+    /**
+     * Bind the exchange the helper functions operate on to the current Ruby thread.
+     */
+    private void bindExchange(Exchange exchange) {
+        Ruby runtime = container.getProvider().getRuntime();
+        RubyThread thread = runtime.getCurrentContext().getThread();
+        thread.op_aset(runtime.newSymbol(EXCHANGE_KEY),
+                exchange != null ? JavaUtil.convertJavaToUsableRubyObject(runtime, exchange) : runtime.getNil());
+    }
+
+    void terminate() {
+        container.terminate();
+    }
+}
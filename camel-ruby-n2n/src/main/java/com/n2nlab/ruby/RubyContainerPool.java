@@ -0,0 +1,97 @@
+package com.n2nlab.ruby;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+
+/**
+ * Bounded pool of {@link RubyContainer}s.
+ * <p>
+ * Containers are created on demand up to the pool size, which bounds the number of exchanges
+ * executing Ruby concurrently. When all containers are busy, callers wait for one to be released.
+ */
+class RubyContainerPool {
+    private static final Logger LOG = LoggerFactory.getLogger(RubyContainerPool.class);
+
+    private final int size;
+    private final BlockingDeque<RubyContainer> idle = new LinkedBlockingDeque<>();
+    private final List<RubyContainer> containers = new ArrayList<>();
+    private int created;
+
+    RubyContainerPool(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Ruby container pool size must be at least 1 but was " + size);
+        }
+        this.size = size;
+    }
+
+    /**
+     * Take a container from the pool, creating one if the pool has not reached its size yet.
+     *
+     * @return A container reserved for the caller
+     * @throws InterruptedException if interrupted while waiting for a container
+     */
+    RubyContainer acquire() throws InterruptedException {
+        RubyContainer container = idle.pollFirst();
+        if (container != null) {
+            return container;
+        }
+        if (reserveSlot()) {
+            return create();
+        }
+        return idle.takeFirst();
+    }
+
+    private boolean reserveSlot() {
+        synchronized (containers) {
+            if (created >= size) {
+                return false;
+            }
+            created++;
+            LOG.debug("Creating Ruby container {} of {}", created, size);
+            return true;
+        }
+    }
+
+    private RubyContainer create() {
+        RubyContainer container;
+        try {
+            container = new RubyContainer();
+        } catch (RuntimeException e) {
+            synchronized (containers) {
+                created--;
+            }
+            throw e;
+        }
+        synchronized (containers) {
+            containers.add(container);
+        }
+        return container;
+    }
+
+    /**
+     * Return a container to the pool.
+     *
+     * @param container The container obtained from {@link #acquire()}
+     */
+    void release(RubyContainer container) {
+        // Most recently used first, so a lightly loaded route keeps reusing warm runtimes
+        idle.offerFirst(container);
+    }
+
+    /**
+     * Terminate all containers created by this pool.
+     */
+    void stop() {
+        synchronized (containers) {
+            containers.forEach(RubyContainer::terminate);
+            containers.clear();
+            idle.clear();
+            created = 0;
+        }
+    }
+}
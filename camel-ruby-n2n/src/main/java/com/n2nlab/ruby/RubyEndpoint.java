@@ -2,9 +2,14 @@ package com.n2nlab.ruby;
 
 import org.apache.camel.Category;
 import org.apache.camel.Consumer;
+import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
 import org.apache.camel.Processor;
 import org.apache.camel.Producer;
 import org.apache.camel.RuntimeCamelException;
+import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedOperation;
+import org.apache.camel.api.management.ManagedResource;
 import org.apache.camel.support.DefaultEndpoint;
 import org.apache.camel.spi.Metadata;
 import org.apache.camel.spi.UriEndpoint;
@@ -14,6 +19,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.util.Base64;
 import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
 
 @UriEndpoint(
         firstVersion = "1.0.0",
@@ -22,8 +28,10 @@ import java.nio.charset.StandardCharsets;
         syntax = "ruby:scriptName",
         category = {Category.TRANSFORMATION, Category.SCRIPT}
 )
+@ManagedResource(description = "Managed Ruby endpoint")
 public class RubyEndpoint extends DefaultEndpoint {
     private static final Logger LOG = LoggerFactory.getLogger(RubyEndpoint.class);
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
 
     @UriPath
     @Metadata(required = true)
@@ -41,6 +49,10 @@ public class RubyEndpoint extends DefaultEndpoint {
     @UriParam(description = "Path to external Ruby script file")
     private String scriptPath;
 
+    @UriParam(defaultValue = "1000",
+            description = "Minimum interval in milliseconds between checks of scriptPath for changes, 0 to never reload")
+    private long scriptReloadInterval = 1000;
+
     @UriParam(defaultValue = "false",
             description = "Whether to cache the compiled script")
     private boolean cacheScript = false;
@@ -53,6 +65,34 @@ public class RubyEndpoint extends DefaultEndpoint {
             description = "Character encoding for scripts")
     private String encoding = "UTF-8";
 
+    @UriParam(defaultValue = "4",
+            description = "Maximum number of isolated Ruby runtimes executing scripts concurrently")
+    private int poolSize = 4;
+
+    @UriParam(defaultValue = "0",
+            description = "Maximum number of script results to cache, 0 to disable the result cache")
+    private int resultCacheSize = 0;
+
+    @UriParam(defaultValue = "${body}",
+            description = "Simple expression computing the result cache key of an exchange")
+    private String resultCacheKey = "${body}";
+
+    @UriParam(defaultValue = "0",
+            description = "Time in milliseconds a cached result is kept, 0 to keep it until it is evicted")
+    private long resultCacheTtl = 0;
+
+    @UriParam(defaultValue = "0",
+            description = "Maximum total size of the cached bodies in characters or bytes, 0 for no bound")
+    private long resultCacheMaxWeight = 0;
+
+    private volatile String decodedScript;
+
+    private volatile RubyScript registeredScript;
+    private RubyScriptRegistry.Listener registryListener;
+
+    private volatile RubyResultCache resultCache;
+    private Expression resultCacheKeyExpression;
+
     public RubyEndpoint(String uri, RubyComponent component) {
         super(uri, component);
     }
@@ -69,28 +109,154 @@ public class RubyEndpoint extends DefaultEndpoint {
 
 
 
+    @Override
+    public RubyComponent getComponent() {
+        return (RubyComponent) super.getComponent();
+    }
+
+    @Override
+    protected void doInit() throws Exception {
+        super.doInit();
+        // Decode once so a malformed payload fails the endpoint rather than every exchange
+        if (encodedScript != null) {
+            getEffectiveScript();
+        }
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+        if (scriptId != null) {
+            // Track the registry entry instead of looking it up for every exchange
+            RubyScriptRegistry registry = getComponent().getScriptRegistry();
+            registryListener = (id, script) -> {
+                LOG.debug("Ruby script '{}' changed on {}: {}", id, getEndpointUri(), script);
+                registeredScript = script;
+            };
+            registry.subscribe(scriptId, registryListener);
+            registeredScript = registry.lookup(scriptId);
+        }
+        if (resultCacheSize > 0) {
+            resultCacheKeyExpression = getCamelContext().resolveLanguage("simple").createExpression(resultCacheKey);
+            resultCacheKeyExpression.init(getCamelContext());
+            resultCache = new RubyResultCache(resultCacheSize, resultCacheTtl, resultCacheMaxWeight);
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (registryListener != null) {
+            getComponent().getScriptRegistry().unsubscribe(scriptId, registryListener);
+            registryListener = null;
+            registeredScript = null;
+        }
+        resultCache = null;
+        resultCacheKeyExpression = null;
+        super.doStop();
+    }
+
+    /**
+     * @return The result cache, or null if {@code resultCacheSize} is 0
+     */
+    RubyResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * Compute the result cache key of an exchange.
+     */
+    String evaluateResultCacheKey(Exchange exchange) {
+        return resultCacheKeyExpression.evaluate(exchange, String.class);
+    }
+
+    @ManagedAttribute(description = "Number of exchanges answered from the result cache")
+    public long getResultCacheHits() {
+        RubyResultCache cache = resultCache;
+        return cache != null ? cache.getHits() : 0;
+    }
+
+    @ManagedAttribute(description = "Number of exchanges that missed the result cache")
+    public long getResultCacheMisses() {
+        RubyResultCache cache = resultCache;
+        return cache != null ? cache.getMisses() : 0;
+    }
+
+    @ManagedAttribute(description = "Share of exchanges answered from the result cache")
+    public double getResultCacheHitRatio() {
+        long hits = getResultCacheHits();
+        long total = hits + getResultCacheMisses();
+        return total > 0 ? (double) hits / total : 0;
+    }
+
+    @ManagedAttribute(description = "Number of results evicted from the result cache")
+    public long getResultCacheEvictions() {
+        RubyResultCache cache = resultCache;
+        return cache != null ? cache.getEvictions() : 0;
+    }
+
+    @ManagedAttribute(description = "Number of results in the result cache")
+    public int getResultCacheEntries() {
+        RubyResultCache cache = resultCache;
+        return cache != null ? cache.size() : 0;
+    }
+
+    @ManagedAttribute(description = "Total weight of the bodies in the result cache")
+    public long getResultCacheWeight() {
+        RubyResultCache cache = resultCache;
+        return cache != null ? cache.getWeight() : 0;
+    }
+
+    @ManagedOperation(description = "Remove all results from the result cache")
+    public void clearResultCache() {
+        RubyResultCache cache = resultCache;
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Return the current version of the script referenced by {@code scriptId}.
+     *
+     * @return The registered script
+     * @throws RuntimeCamelException if no script is registered under the ID
+     */
+    public RubyScript getRegisteredScript() {
+        RubyScript script = registryListener != null
+                ? registeredScript
+                : getComponent().getScriptRegistry().lookup(scriptId);
+        if (script == null) {
+            throw new RuntimeCamelException("No script found for ID: " + scriptId);
+        }
+        return script;
+    }
+
     public String getEffectiveScript() {
         if (scriptId != null) {
-            String registeredScript = RubyScriptRegistry.getScript(scriptId);
-            if (registeredScript == null) {
-                throw new RuntimeCamelException("No script found for ID: " + scriptId);
-            }
-            return registeredScript;
+            return getRegisteredScript().getSource();
         }
         if (encodedScript != null) {
-            try {
-                LOG.debug("Attempting to decode Base64 script: {}", encodedScript);
-                String cleaned = encodedScript.trim().replaceAll("\\s+", "");
-                byte[] decoded = Base64.getDecoder().decode(cleaned);
-                return new String(decoded, StandardCharsets.UTF_8);
-            } catch (IllegalArgumentException e) {
-                LOG.error("Failed to decode Base64 script: {}", encodedScript, e);
-                throw new RuntimeCamelException("Failed to decode Base64 script: " + e.getMessage(), e);
+            String decoded = decodedScript;
+            if (decoded == null) {
+                decoded = decodeScript(encodedScript);
+                decodedScript = decoded;
             }
+            return decoded;
         }
         return rubyScript;
     }
 
+    private static String decodeScript(String encoded) {
+        try {
+            LOG.debug("Decoding Base64 script of {} characters", encoded.length());
+            String cleaned = WHITESPACE.matcher(encoded.trim()).replaceAll("");
+            byte[] decoded = Base64.getDecoder().decode(cleaned);
+            return new String(decoded, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            LOG.error("Failed to decode Base64 script of {} characters", encoded.length(), e);
+            throw new RuntimeCamelException("Failed to decode Base64 script: " + e.getMessage(), e);
+        }
+    }
+
     public void validateConfiguration() {
         LOG.debug("Validating endpoint configuration...");
         LOG.debug("scriptPath: {}", scriptPath);
@@ -112,6 +278,12 @@ public class RubyEndpoint extends DefaultEndpoint {
             throw new RuntimeCamelException(
                     "Only one of 'rubyScript', 'encodedScript', 'scriptPath', or 'scriptId' can be specified on " + getEndpointUri());
         }
+        if (poolSize < 1) {
+            throw new RuntimeCamelException("'poolSize' must be at least 1 on " + getEndpointUri());
+        }
+        if (resultCacheSize < 0) {
+            throw new RuntimeCamelException("'resultCacheSize' must not be negative on " + getEndpointUri());
+        }
         LOG.debug("Configuration validation successful");
     }
 
@@ -147,6 +319,7 @@ public class RubyEndpoint extends DefaultEndpoint {
 
     public void setEncodedScript(String encodedScript) {
         this.encodedScript = encodedScript;
+        this.decodedScript = null;
     }
 
     public String getScriptPath() {
@@ -157,6 +330,14 @@ public class RubyEndpoint extends DefaultEndpoint {
         this.scriptPath = scriptPath;
     }
 
+    public long getScriptReloadInterval() {
+        return scriptReloadInterval;
+    }
+
+    public void setScriptReloadInterval(long scriptReloadInterval) {
+        this.scriptReloadInterval = scriptReloadInterval;
+    }
+
     public boolean isCacheScript() {
         return cacheScript;
     }
@@ -180,4 +361,44 @@ public class RubyEndpoint extends DefaultEndpoint {
     public void setEncoding(String encoding) {
         this.encoding = encoding;
     }
-}
\ No newline at end of file
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public int getResultCacheSize() {
+        return resultCacheSize;
+    }
+
+    public void setResultCacheSize(int resultCacheSize) {
+        this.resultCacheSize = resultCacheSize;
+    }
+
+    public String getResultCacheKey() {
+        return resultCacheKey;
+    }
+
+    public void setResultCacheKey(String resultCacheKey) {
+        this.resultCacheKey = resultCacheKey;
+    }
+
+    public long getResultCacheTtl() {
+        return resultCacheTtl;
+    }
+
+    public void setResultCacheTtl(long resultCacheTtl) {
+        this.resultCacheTtl = resultCacheTtl;
+    }
+
+    public long getResultCacheMaxWeight() {
+        return resultCacheMaxWeight;
+    }
+
+    public void setResultCacheMaxWeight(long resultCacheMaxWeight) {
+        this.resultCacheMaxWeight = resultCacheMaxWeight;
+    }
+}
@@ -2,42 +2,21 @@ package com.n2nlab.ruby;
 
 import org.apache.camel.Exchange;
 import org.apache.camel.support.DefaultProducer;
-import org.jruby.embed.LocalContextScope;
-import org.jruby.embed.LocalVariableBehavior;
-import org.jruby.embed.ScriptingContainer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.File;
-import java.nio.file.Files;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
 
 
 public class RubyProducer extends DefaultProducer {
     private static final Logger LOG = LoggerFactory.getLogger(RubyProducer.class);
     private final RubyEndpoint endpoint;
-    private ScriptingContainer container;
-
-    private static final String HELPER_FUNCTIONS = """
-        def set_body(val)
-          $exchange.getMessage().setBody(val)
-        end
-        
-        def set_header(name, val)
-          $exchange.getMessage().setHeader(name, val)
-        end
-        
-        def get_header(name)
-          $exchange.getMessage().getHeader(name)
-        end
-        
-        def set_exchange_property(name, val)
-          $exchange.setProperty(name, val)
-        end
-        
-        def get_exchange_property(name)
-          $exchange.getProperty(name)
-        end
-        """;
+    private RubyContainerPool containerPool;
+    private RubyScriptFile scriptFile;
+    private RubyScript resolvedScript;
 
     public RubyProducer(RubyEndpoint endpoint) {
         super(endpoint);
@@ -47,56 +26,94 @@ public class RubyProducer extends DefaultProducer {
     @Override
     protected void doStart() throws Exception {
         super.doStart();
-        container = new ScriptingContainer(LocalContextScope.THREADSAFE, LocalVariableBehavior.PERSISTENT);
+        containerPool = new RubyContainerPool(endpoint.getPoolSize());
+        if (endpoint.getScriptPath() != null) {
+            scriptFile = new RubyScriptFile(Paths.get(endpoint.getScriptPath()),
+                    Charset.forName(endpoint.getEncoding()), endpoint.getScriptReloadInterval());
+        }
+
+        if (endpoint.getScriptPath() == null && endpoint.getScriptId() == null) {
+            // Inline and encoded scripts never change, so they are resolved once
+            resolvedScript = new RubyScript(null, endpoint.getEffectiveScript());
+
+            // Parse up front so syntax errors surface when the route starts
+            if (endpoint.isCacheScript()) {
+                RubyContainer container = containerPool.acquire();
+                try {
+                    resolvedScript.compile(container);
+                } finally {
+                    containerPool.release(container);
+                }
+            }
+        }
     }
 
     @Override
     protected void doStop() throws Exception {
-        if (container != null) {
-            container.terminate();
-            container = null;
+        if (containerPool != null) {
+            containerPool.stop();
+            containerPool = null;
         }
+        scriptFile = null;
+        resolvedScript = null;
         super.doStop();
     }
 
     @Override
     public void process(Exchange exchange) throws Exception {
-        String script;
+        RubyScript script;
 
         // Load script based on configuration
-        if (endpoint.getScriptPath() != null) {
-            // Load from file
-            File scriptFile = new File(endpoint.getScriptPath());
-            script = new String(Files.readAllBytes(scriptFile.toPath()), endpoint.getEncoding());
+        if (scriptFile != null) {
+            // Cached file content, reloaded when the file changes
+            script = scriptFile.getScript();
+        } else if (resolvedScript != null) {
+            // Inline or encoded script resolved at startup
+            script = resolvedScript;
         } else {
-            // Get from inline or encoded script
-            script = endpoint.getEffectiveScript();
+            // Registry script tracked by the endpoint; compiled once per runtime and version
+            script = endpoint.getRegisteredScript();
         }
 
-        try {
-            // Set up global variables
-            container.put("$exchange", exchange);
-            container.put("$message", exchange.getMessage());
-            container.put("$body", exchange.getMessage().getBody());
-            container.put("$headers", exchange.getMessage().getHeaders());
-            container.put("$properties", exchange.getProperties());
-
-            // Initialize helper functions
-            container.runScriptlet(HELPER_FUNCTIONS);
+        // Answer repeated inputs of deterministic scripts without running Ruby
+        RubyResultCache resultCache = endpoint.getResultCache();
+        String cacheKey = null;
+        Map<String, Object> headersBefore = null;
+        if (resultCache != null) {
+            cacheKey = endpoint.evaluateResultCacheKey(exchange);
+            RubyResultCache.Result cached = resultCache.get(script, cacheKey);
+            if (cached != null) {
+                cached.applyTo(exchange.getMessage());
+                return;
+            }
+            headersBefore = new HashMap<>(exchange.getMessage().getHeaders());
+        }
 
+        RubyContainer container = containerPool.acquire();
+        try {
             // Execute user script
-            Object result = container.runScriptlet(script);
+            Object result = container.run(exchange, script, endpoint.isCacheScript());
 
             // Update exchange if result is not null
             if (result != null) {
                 exchange.getMessage().setBody(result);
             }
 
+            if (resultCache != null) {
+                RubyResultCache.Result captured = RubyResultCache.Result.capture(exchange.getMessage().getBody(),
+                        headersBefore, exchange.getMessage().getHeaders());
+                if (captured != null) {
+                    resultCache.put(script, cacheKey, captured);
+                    // Hand out a detached copy on a miss too, so hits and misses return the same types
+                    captured.applyTo(exchange.getMessage());
+                }
+            }
+
         } catch (Exception e) {
             LOG.error("Error executing Ruby script: " + e.getMessage(), e);
             throw e;
         } finally {
-            container.clear();
+            containerPool.release(container);
         }
     }
-}
\ No newline at end of file
+}
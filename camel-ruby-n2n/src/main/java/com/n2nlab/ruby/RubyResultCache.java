@@ -0,0 +1,237 @@
+package com.n2nlab.ruby;
+
+import org.apache.camel.Message;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache of the bodies and headers produced by a Ruby script.
+ * <p>
+ * Results are keyed by the script version and the value of the key expression, so a reloaded or
+ * re-registered script never answers with the results of its previous version. Entries are evicted
+ * least recently used first when the cache holds more than its maximum number of entries or, with
+ * a weight bound, when the total weight of the cached bodies exceeds it. A result heavier than the
+ * bound is not cached at all. Expired entries are dropped when they are read.
+ * <p>
+ * Results are detached from the Ruby runtime that produced them: bodies and header values are
+ * copied when they are cached and again for every hit, so exchanges never share a mutable value.
+ * Only strings, numbers, booleans, byte arrays, enums and maps and lists of these can be copied;
+ * results holding anything else are not cached.
+ */
+class RubyResultCache {
+
+    private static final Object UNCACHEABLE = new Object();
+
+    /**
+     * A cached script result.
+     *
+     * @param body The message body after the script ran
+     * @param headers The headers the script added or changed
+     * @param removedHeaders The headers the script removed
+     */
+    record Result(Object body, Map<String, Object> headers, Set<String> removedHeaders) {
+
+        /**
+         * Capture the outcome of a script run.
+         *
+         * @param body The message body after the script ran
+         * @param before The headers before the script ran
+         * @param after The headers after the script ran
+         * @return A detached copy of the result, or null if it cannot be copied
+         */
+        static Result capture(Object body, Map<String, Object> before, Map<String, Object> after) {
+            Object bodyCopy = copy(body);
+            if (bodyCopy == UNCACHEABLE) {
+                return null;
+            }
+            Map<String, Object> changed = new HashMap<>();
+            for (Map.Entry<String, Object> header : after.entrySet()) {
+                if (!Objects.equals(before.get(header.getKey()), header.getValue())) {
+                    Object value = copy(header.getValue());
+                    if (value == UNCACHEABLE) {
+                        return null;
+                    }
+                    changed.put(header.getKey(), value);
+                }
+            }
+            Set<String> removed = new HashSet<>(before.keySet());
+            removed.removeIf(after::containsKey);
+            return new Result(bodyCopy, changed, removed);
+        }
+
+        /**
+         * Set a private copy of this result on a message.
+         */
+        void applyTo(Message message) {
+            removedHeaders.forEach(message::removeHeader);
+            headers.forEach((name, value) -> message.setHeader(name, copy(value)));
+            message.setBody(copy(body));
+        }
+    }
+
+    private record Key(long scriptVersion, String value) {
+    }
+
+    private record Entry(Result result, long weight, long expiresAt) {
+    }
+
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final int maxEntries;
+    private final long ttl;
+    private final long maxWeight;
+    private final LongSupplier clock;
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param maxEntries The maximum number of results kept
+     * @param ttl How long a result is kept in milliseconds, 0 to keep it until it is evicted
+     * @param maxWeight The maximum total weight of the results kept, 0 for no bound
+     */
+    RubyResultCache(int maxEntries, long ttl, long maxWeight) {
+        this(maxEntries, ttl, maxWeight, System::currentTimeMillis);
+    }
+
+    RubyResultCache(int maxEntries, long ttl, long maxWeight, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.maxWeight = maxWeight;
+        this.clock = clock;
+    }
+
+    /**
+     * Estimate the weight of a body: its length for text and binary bodies, 1 for anything else.
+     */
+    static long weigh(Object body) {
+        if (body instanceof byte[] bytes) {
+            return bytes.length;
+        }
+        if (body instanceof CharSequence text) {
+            return text.length();
+        }
+        return 1;
+    }
+
+    /**
+     * @return The cached result, or null if there is none or it has expired
+     */
+    synchronized Result get(RubyScript script, String value) {
+        Key key = new Key(script.getVersion(), value);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt() != 0 && entry.expiresAt() <= clock.getAsLong()) {
+            remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.result();
+    }
+
+    /**
+     * Copy a value into plain Java maps and lists.
+     *
+     * @return The copy, or {@link #UNCACHEABLE} if the value holds a type that cannot be copied
+     */
+    private static Object copy(Object value) {
+        if (value == null || value instanceof String || value instanceof Boolean || value instanceof Character
+                || value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+                || value instanceof Double || value instanceof Float || value instanceof BigInteger
+                || value instanceof BigDecimal || value instanceof Enum<?>) {
+            return value;
+        }
+        if (value instanceof byte[] bytes) {
+            return bytes.clone();
+        }
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                Object key = copy(entry.getKey());
+                Object item = copy(entry.getValue());
+                if (key == UNCACHEABLE || item == UNCACHEABLE) {
+                    return UNCACHEABLE;
+                }
+                copy.put(key, item);
+            }
+            return copy;
+        }
+        if (value instanceof List<?> || value instanceof Set<?>) {
+            Collection<Object> copy = value instanceof List<?> ? new ArrayList<>() : new HashSet<>();
+            for (Object element : (Collection<?>) value) {
+                Object item = copy(element);
+                if (item == UNCACHEABLE) {
+                    return UNCACHEABLE;
+                }
+                copy.add(item);
+            }
+            return copy;
+        }
+        return UNCACHEABLE;
+    }
+
+    synchronized void put(RubyScript script, String value, Result result) {
+        long resultWeight = weigh(result.body());
+        if (maxWeight > 0 && resultWeight > maxWeight) {
+            return;
+        }
+        Key key = new Key(script.getVersion(), value);
+        remove(key);
+        entries.put(key, new Entry(result, resultWeight, ttl > 0 ? clock.getAsLong() + ttl : 0));
+        weight += resultWeight;
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries || (maxWeight > 0 && weight > maxWeight)) {
+            weight -= eldest.next().weight();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private void remove(Key key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            weight -= removed.weight();
+        }
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long getWeight() {
+        return weight;
+    }
+
+    synchronized long getHits() {
+        return hits;
+    }
+
+    synchronized long getMisses() {
+        return misses;
+    }
+
+    synchronized long getEvictions() {
+        return evictions;
+    }
+}
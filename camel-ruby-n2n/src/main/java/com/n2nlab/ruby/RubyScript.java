@@ -0,0 +1,71 @@
+package com.n2nlab.ruby;
+
+import org.jruby.embed.EmbedEvalUnit;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An immutable version of a Ruby script.
+ * <p>
+ * Every new source gets a new, increasing version number. The compiled form of the script is
+ * produced lazily, once for each Ruby runtime that runs it.
+ */
+public final class RubyScript {
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    private final String id;
+    private final String source;
+    private final long version;
+    private final Map<RubyContainer, EmbedEvalUnit> compiledUnits = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * @param id The script identifier, or null for scripts that are not registered
+     * @param source The Ruby script content
+     */
+    public RubyScript(String id, String source) {
+        if (source == null) {
+            throw new IllegalArgumentException("Ruby script source must not be null");
+        }
+        this.id = id;
+        this.source = source;
+        this.version = VERSIONS.incrementAndGet();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Return the compiled form of this script for the given runtime, parsing it on first use.
+     *
+     * @param container The runtime that will run the script
+     * @return The compiled script
+     */
+    EmbedEvalUnit compile(RubyContainer container) {
+        EmbedEvalUnit unit = compiledUnits.get(container);
+        if (unit == null) {
+            unit = container.parse(source);
+            EmbedEvalUnit existing = compiledUnits.putIfAbsent(container, unit);
+            if (existing != null) {
+                unit = existing;
+            }
+        }
+        return unit;
+    }
+
+    @Override
+    public String toString() {
+        return "RubyScript[" + (id != null ? id : "inline") + " v" + version + "]";
+    }
+}
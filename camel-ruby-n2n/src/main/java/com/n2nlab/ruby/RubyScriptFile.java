@@ -0,0 +1,99 @@
+package com.n2nlab.ruby;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * Ruby script loaded from a file and kept in memory.
+ * <p>
+ * The file is read on first use. Afterwards its modification time and size are checked at most
+ * once per reload interval and the content is read again only when one of them changed. A reload
+ * replaces the cached source atomically, so exchanges that already obtained the previous source
+ * finish with it. Each load produces a new {@link RubyScript} version.
+ */
+class RubyScriptFile {
+    private static final Logger LOG = LoggerFactory.getLogger(RubyScriptFile.class);
+
+    private final Path path;
+    private final Charset charset;
+    private final long reloadInterval;
+    private volatile Snapshot snapshot;
+
+    /**
+     * @param path The script file
+     * @param charset The encoding of the script file
+     * @param reloadInterval Minimum time in milliseconds between checks for changes, 0 to never reload
+     */
+    RubyScriptFile(Path path, Charset charset, long reloadInterval) {
+        this.path = path;
+        this.charset = charset;
+        this.reloadInterval = reloadInterval;
+    }
+
+    /**
+     * Return the current script version, reloading the file if it changed.
+     *
+     * @return The script
+     * @throws IOException if the file cannot be read on first use
+     */
+    RubyScript getScript() throws IOException {
+        Snapshot current = snapshot;
+        if (current != null && !isCheckDue(current)) {
+            return current.script();
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current != null && !isCheckDue(current)) {
+                return current.script();
+            }
+            long now = System.currentTimeMillis();
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            } catch (IOException e) {
+                if (current == null) {
+                    throw e;
+                }
+                LOG.warn("Cannot check Ruby script {} for changes, keeping the loaded version: {}", path, e.getMessage());
+                snapshot = current.checkedAt(now);
+                return current.script();
+            }
+
+            if (current != null && current.isSameFile(attributes)) {
+                snapshot = current.checkedAt(now);
+                return current.script();
+            }
+
+            RubyScript script = new RubyScript(null, new String(Files.readAllBytes(path), charset));
+            snapshot = new Snapshot(script, attributes.lastModifiedTime(), attributes.size(), now);
+            if (current == null) {
+                LOG.debug("Loaded Ruby script {}", path);
+            } else {
+                LOG.info("Reloaded changed Ruby script {}", path);
+            }
+            return script;
+        }
+    }
+
+    private boolean isCheckDue(Snapshot current) {
+        return reloadInterval > 0 && System.currentTimeMillis() - current.checkedAt() >= reloadInterval;
+    }
+
+    private record Snapshot(RubyScript script, FileTime lastModified, long size, long checkedAt) {
+
+        boolean isSameFile(BasicFileAttributes attributes) {
+            return lastModified.equals(attributes.lastModifiedTime()) && size == attributes.size();
+        }
+
+        Snapshot checkedAt(long time) {
+            return new Snapshot(script, lastModified, size, time);
+        }
+    }
+}
@@ -1,49 +1,190 @@
 package com.n2nlab.ruby;
 
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
 
 /**
- * Registry for storing and managing Ruby scripts
+ * Registry for storing and managing Ruby scripts.
+ * <p>
+ * Each {@link RubyComponent}, and therefore each CamelContext, owns its own registry whose
+ * lookups fall back to the JVM-wide registry behind the static methods. Entries are versioned
+ * {@link RubyScript}s, and listeners subscribed to a script ID are notified whenever the script
+ * visible under that ID changes.
  */
 public class RubyScriptRegistry {
-    private static final Map<String, String> scripts = new ConcurrentHashMap<>();
+    private static final RubyScriptRegistry GLOBAL = new RubyScriptRegistry(null);
+
+    private final RubyScriptRegistry parent;
+    private final Map<String, RubyScript> scripts = new ConcurrentHashMap<>();
+    private final Map<String, Set<Listener>> listeners = new ConcurrentHashMap<>();
+    private final Map<Subscription, Listener> parentListeners = new ConcurrentHashMap<>();
+
+    // A listener subscribed to several IDs gets a separate forwarder in the parent for each
+    private record Subscription(String scriptId, Listener listener) {
+    }
 
     /**
-     * Register a script with a unique identifier
+     * Listener notified when the script registered under an ID changes.
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * @param scriptId The script identifier
+         * @param script The script now visible under the ID, or null if it was removed
+         */
+        void scriptChanged(String scriptId, RubyScript script);
+    }
+
+    /**
+     * @param parent Registry consulted for IDs that are not registered here, or null
+     */
+    public RubyScriptRegistry(RubyScriptRegistry parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * @return The JVM-wide registry used by the static methods
+     */
+    public static RubyScriptRegistry global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Register a script with a unique identifier in the JVM-wide registry
      *
      * @param scriptId Unique identifier for the script
      * @param script The Ruby script content
      * @return The script ID for reference
      */
     public static String registerScript(String scriptId, String script) {
-        scripts.put(scriptId, script);
+        GLOBAL.register(scriptId, script);
         return scriptId;
     }
 
     /**
-     * Retrieve a script by its ID
+     * Retrieve a script by its ID from the JVM-wide registry
      *
      * @param scriptId The script identifier
      * @return The script content or null if not found
      */
     public static String getScript(String scriptId) {
-        return scripts.get(scriptId);
+        RubyScript script = GLOBAL.lookup(scriptId);
+        return script != null ? script.getSource() : null;
     }
 
     /**
-     * Clear all registered scripts
+     * Clear all scripts registered in the JVM-wide registry
      */
     public static void clearScripts() {
-        scripts.clear();
+        GLOBAL.clear();
     }
 
     /**
-     * Remove a specific script
+     * Remove a specific script from the JVM-wide registry
      *
      * @param scriptId The script identifier to remove
      */
     public static void removeScript(String scriptId) {
-        scripts.remove(scriptId);
+        GLOBAL.remove(scriptId);
+    }
+
+    /**
+     * Register a new version of a script
+     *
+     * @param scriptId Unique identifier for the script
+     * @param source The Ruby script content
+     * @return The registered script version
+     */
+    public RubyScript register(String scriptId, String source) {
+        RubyScript script = new RubyScript(scriptId, source);
+        scripts.put(scriptId, script);
+        fireChanged(scriptId);
+        return script;
+    }
+
+    /**
+     * Look up the current version of a script, falling back to the parent registry
+     *
+     * @param scriptId The script identifier
+     * @return The script or null if not found
+     */
+    public RubyScript lookup(String scriptId) {
+        RubyScript script = scripts.get(scriptId);
+        if (script == null && parent != null) {
+            return parent.lookup(scriptId);
+        }
+        return script;
+    }
+
+    /**
+     * Remove a script from this registry
+     *
+     * @param scriptId The script identifier to remove
+     */
+    public void remove(String scriptId) {
+        if (scripts.remove(scriptId) != null) {
+            fireChanged(scriptId);
+        }
+    }
+
+    /**
+     * Remove all scripts from this registry
+     */
+    public void clear() {
+        List<String> removed = new ArrayList<>(scripts.keySet());
+        scripts.clear();
+        removed.forEach(this::fireChanged);
+    }
+
+    /**
+     * Subscribe to changes of the script visible under an ID, including changes in the parent
+     * registry that are not shadowed by this one
+     *
+     * @param scriptId The script identifier
+     * @param listener The listener to notify
+     */
+    public void subscribe(String scriptId, Listener listener) {
+        listeners.computeIfAbsent(scriptId, id -> new CopyOnWriteArraySet<>()).add(listener);
+        if (parent != null) {
+            parentListeners.computeIfAbsent(new Subscription(scriptId, listener), subscription -> {
+                Listener forwarder = (id, script) -> {
+                    if (!scripts.containsKey(id)) {
+                        listener.scriptChanged(id, script);
+                    }
+                };
+                parent.subscribe(scriptId, forwarder);
+                return forwarder;
+            });
+        }
+    }
+
+    /**
+     * Stop notifying a listener previously passed to {@link #subscribe(String, Listener)}
+     *
+     * @param scriptId The script identifier
+     * @param listener The listener to remove
+     */
+    public void unsubscribe(String scriptId, Listener listener) {
+        Set<Listener> subscribed = listeners.get(scriptId);
+        if (subscribed != null) {
+            subscribed.remove(listener);
+        }
+        Listener forwarder = parentListeners.remove(new Subscription(scriptId, listener));
+        if (forwarder != null) {
+            parent.unsubscribe(scriptId, forwarder);
+        }
+    }
+
+    private void fireChanged(String scriptId) {
+        Set<Listener> subscribed = listeners.get(scriptId);
+        if (subscribed != null && !subscribed.isEmpty()) {
+            RubyScript script = lookup(scriptId);
+            subscribed.forEach(listener -> listener.scriptChanged(scriptId, script));
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package com.n2nlab.ruby;
 
 import org.apache.camel.Exchange;
+import org.apache.camel.ExchangePattern;
 import org.apache.camel.builder.RouteBuilder;
 import org.apache.camel.test.junit5.CamelTestSupport;
 import org.apache.camel.RuntimeCamelException;
@@ -13,6 +14,14 @@ import com.fasterxml.jackson.databind.JsonNode;
 import java.io.File;
 import java.nio.file.Files;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.io.TempDir;
 
 public class RubyComponentTest extends CamelTestSupport {
@@ -160,6 +169,31 @@ public class RubyComponentTest extends CamelTestSupport {
         assertEquals("olleh", result);
     }
 
+    @Test
+    public void testScriptFileReloadedWhenChanged() throws Exception {
+        File scriptFile = new File(tempDir, "reload-script.rb");
+        Files.write(scriptFile.toPath(), "$body.to_s + '-v1'".getBytes(StandardCharsets.UTF_8));
+
+        context.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() {
+                from("direct:reload-script")
+                        .to("ruby:reload?cacheScript=true&scriptReloadInterval=10&scriptPath=" + scriptFile.getAbsolutePath());
+            }
+        });
+
+        assertEquals("a-v1", template.requestBody("direct:reload-script", "a", String.class));
+
+        Files.write(scriptFile.toPath(), "$body.to_s + '-version2'".getBytes(StandardCharsets.UTF_8));
+        Thread.sleep(50);
+        assertEquals("b-version2", template.requestBody("direct:reload-script", "b", String.class));
+
+        // A deleted file keeps the last loaded version in service
+        Files.delete(scriptFile.toPath());
+        Thread.sleep(50);
+        assertEquals("c-version2", template.requestBody("direct:reload-script", "c", String.class));
+    }
+
     @Test
     public void testNonExistentScriptFile() throws Exception {
         context.addRoutes(new RouteBuilder() {
@@ -202,6 +236,21 @@ public class RubyComponentTest extends CamelTestSupport {
         assertEquals("headervalue", exchange.getMessage().getHeader("ModifiedHeader"));
     }
 
+    @Test
+    public void testHelpersDoNotDependOnExchangeGlobal() throws Exception {
+        RubyScriptRegistry.registerScript("helpers-binding", """
+            $exchange = nil
+            set_header('Bound', get_header('Input'))
+            """);
+
+        for (int i = 0; i < 3; i++) {
+            Exchange exchange = template.request("direct:helpers-binding",
+                    e -> e.getMessage().setHeader("Input", "value"));
+            assertNull(exchange.getException());
+            assertEquals("value", exchange.getMessage().getHeader("Bound"));
+        }
+    }
+
     // Boundary Tests
     @Test
     public void testAgeAtCategoryBoundaries() throws Exception {
@@ -242,6 +291,32 @@ public class RubyComponentTest extends CamelTestSupport {
         assertTrue((endTime - startTime) < 30000);
     }
 
+    @Test
+    public void testConcurrentExecutionKeepsExchangesIsolated() throws Exception {
+        RubyScriptRegistry.registerScript("concurrent", """
+            input = $body
+            sleep 0.01
+            set_header('Echo', get_header('Id'))
+            "#{input}-#{$body}-#{get_header('Id')}"
+            """);
+
+        List<Future<Exchange>> futures = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            String id = String.valueOf(i);
+            futures.add(template.asyncSend("seda:concurrent", e -> {
+                e.setPattern(ExchangePattern.InOut);
+                e.getMessage().setBody(id);
+                e.getMessage().setHeader("Id", id);
+            }));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            Exchange exchange = futures.get(i).get(30, TimeUnit.SECONDS);
+            assertNull(exchange.getException());
+            assertEquals(i + "-" + i + "-" + i, exchange.getMessage().getBody(String.class));
+            assertEquals(String.valueOf(i), exchange.getMessage().getHeader("Echo"));
+        }
+    }
+
     // Script Registry Tests
     @Test
     public void testScriptRegistryOperations() {
@@ -262,6 +337,132 @@ public class RubyComponentTest extends CamelTestSupport {
         assertNull(RubyScriptRegistry.getScript(scriptId));
     }
 
+    // Script Caching Tests
+    @Test
+    public void testCachedInlineScript() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals("VALUE" + i, template.requestBody("direct:cached", "value" + i, String.class));
+        }
+    }
+
+    @Test
+    public void testCachedScriptDoesNotLeakLocalVariables() throws Exception {
+        context.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() {
+                from("direct:cached-locals")
+                        .to("ruby:cachedLocals?poolSize=1&cacheScript=true&rubyScript=RAW(x ||= $body.to_s; x)");
+            }
+        });
+
+        // Both exchanges run the same compiled unit in the same runtime
+        assertEquals("first", template.requestBody("direct:cached-locals", "first", String.class));
+        assertEquals("second", template.requestBody("direct:cached-locals", "second", String.class));
+    }
+
+    @Test
+    public void testCachedScriptPicksUpRegistryChanges() throws Exception {
+        RubyScriptRegistry.registerScript("cached-registry", "$body.to_s + '-v1'");
+        assertEquals("a-v1", template.requestBody("direct:cached-registry", "a", String.class));
+        assertEquals("b-v1", template.requestBody("direct:cached-registry", "b", String.class));
+
+        RubyScriptRegistry.registerScript("cached-registry", "$body.to_s + '-v2'");
+        assertEquals("c-v2", template.requestBody("direct:cached-registry", "c", String.class));
+    }
+
+    @Test
+    public void testEncodedScriptDecodedOnce() throws Exception {
+        String encoded = RubyScriptUtils.encodeScript(MULTILINE_SCRIPT);
+        context.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() {
+                from("direct:encoded")
+                        .to("ruby:encoded?cacheScript=true&encodedScript=" + encoded);
+            }
+        });
+
+        RubyEndpoint endpoint = context.getEndpoints().stream()
+                .filter(RubyEndpoint.class::isInstance)
+                .map(RubyEndpoint.class::cast)
+                .filter(e -> e.getEncodedScript() != null)
+                .findFirst()
+                .orElseThrow();
+        assertEquals(MULTILINE_SCRIPT, endpoint.getEffectiveScript());
+        assertSame(endpoint.getEffectiveScript(), endpoint.getEffectiveScript());
+
+        Exchange exchange = template.request("direct:encoded", e -> e.getMessage().setBody("  hello   world "));
+        assertEquals("HELLO WORLD", exchange.getMessage().getBody(String.class));
+        assertEquals("NORMAL", exchange.getMessage().getHeader("Status"));
+    }
+
+    @Test
+    public void testRegistryVersionsAndListeners() {
+        RubyScriptRegistry parent = new RubyScriptRegistry(null);
+        RubyScriptRegistry registry = new RubyScriptRegistry(parent);
+        List<RubyScript> changes = new ArrayList<>();
+        registry.subscribe("versioned", (id, script) -> changes.add(script));
+
+        RubyScript inherited = parent.register("versioned", "'parent'");
+        RubyScript v1 = registry.register("versioned", "'v1'");
+        RubyScript v2 = registry.register("versioned", "'v2'");
+        parent.register("versioned", "'shadowed'");
+        registry.remove("versioned");
+        parent.remove("versioned");
+
+        assertTrue(v2.getVersion() > v1.getVersion());
+        assertEquals(5, changes.size());
+        assertSame(inherited, changes.get(0));
+        assertSame(v1, changes.get(1));
+        assertSame(v2, changes.get(2));
+        assertEquals("'shadowed'", changes.get(3).getSource());
+        assertNull(changes.get(4));
+    }
+
+    @Test
+    public void testRegistryListenerSubscribedSeveralTimes() {
+        RubyScriptRegistry parent = new RubyScriptRegistry(null);
+        RubyScriptRegistry first = new RubyScriptRegistry(parent);
+        RubyScriptRegistry second = new RubyScriptRegistry(parent);
+        List<String> changes = new ArrayList<>();
+        RubyScriptRegistry.Listener listener = (id, script) -> changes.add(id);
+        first.subscribe("a", listener);
+        first.subscribe("b", listener);
+        second.subscribe("a", listener);
+
+        first.unsubscribe("a", listener);
+        parent.register("a", "'a'");
+        parent.register("b", "'b'");
+        second.unsubscribe("a", listener);
+        first.unsubscribe("b", listener);
+        parent.register("a", "'a2'");
+        parent.register("b", "'b2'");
+
+        // Each subscription forwards parent changes until it is removed, independently of the others
+        assertEquals(List.of("a", "b"), changes);
+    }
+
+    @Test
+    public void testContextScopedRegistry() throws Exception {
+        RubyScriptRegistry registry = context.getComponent("ruby", RubyComponent.class).getScriptRegistry();
+        RubyScriptRegistry.registerScript("scoped", "'global'");
+
+        context.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() {
+                from("direct:scoped")
+                        .to("ruby:scoped?cacheScript=true&scriptId=scoped");
+            }
+        });
+        assertEquals("global", template.requestBody("direct:scoped", null, String.class));
+
+        registry.register("scoped", "'context'");
+        assertEquals("context", template.requestBody("direct:scoped", null, String.class));
+        assertEquals("'global'", RubyScriptRegistry.getScript("scoped"));
+
+        registry.remove("scoped");
+        assertEquals("global", template.requestBody("direct:scoped", null, String.class));
+    }
+
     @Test
     public void testInvalidScriptId() {
         assertThrows(RuntimeCamelException.class, () -> {
@@ -269,6 +470,125 @@ public class RubyComponentTest extends CamelTestSupport {
         });
     }
 
+    @Test
+    public void testResultCache() throws Exception {
+        RubyScriptRegistry.registerScript("result-cache",
+                "set_header('Stamp', java.lang.System.nanoTime)\n$body.to_s + '-' + get_header('tenant').to_s");
+        context.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() {
+                from("direct:result-cache")
+                        .to("ruby:resultCache?resultCacheSize=10&resultCacheKey=RAW(${body}-${header.tenant})"
+                                + "&scriptId=result-cache");
+            }
+        });
+
+        Exchange first = template.request("direct:result-cache", e -> {
+            e.getMessage().setBody("a");
+            e.getMessage().setHeader("tenant", "x");
+        });
+        Exchange second = template.request("direct:result-cache", e -> {
+            e.getMessage().setBody("a");
+            e.getMessage().setHeader("tenant", "x");
+        });
+        Exchange otherTenant = template.request("direct:result-cache", e -> {
+            e.getMessage().setBody("a");
+            e.getMessage().setHeader("tenant", "y");
+        });
+
+        // The cached body and headers are set without running the script again
+        assertEquals("a-x", second.getMessage().getBody(String.class));
+        assertEquals(first.getMessage().getHeader("Stamp"), second.getMessage().getHeader("Stamp"));
+        assertEquals("a-y", otherTenant.getMessage().getBody(String.class));
+        assertNotEquals(first.getMessage().getHeader("Stamp"), otherTenant.getMessage().getHeader("Stamp"));
+
+        RubyEndpoint endpoint = context.getEndpoints().stream()
+                .filter(RubyEndpoint.class::isInstance)
+                .map(RubyEndpoint.class::cast)
+                .filter(e -> e.getResultCacheSize() > 0)
+                .findFirst()
+                .orElseThrow();
+        assertEquals(1, endpoint.getResultCacheHits());
+        assertEquals(2, endpoint.getResultCacheMisses());
+        assertEquals(2, endpoint.getResultCacheEntries());
+        assertEquals(6, endpoint.getResultCacheWeight());
+
+        // A new version of the script does not answer with the results of the previous one
+        RubyScriptRegistry.registerScript("result-cache", "$body.to_s + '-v2'");
+        assertEquals("a-v2", template.requestBodyAndHeader("direct:result-cache", "a", "tenant", "x", String.class));
+    }
+
+    @Test
+    public void testResultCacheCopiesResults() throws Exception {
+        RubyScriptRegistry.registerScript("result-cache-copy",
+                "$message.removeHeader('drop')\nset_header('items', ['a'])\n{ 'value' => $body.to_s, 'list' => [1, 2] }");
+        context.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() {
+                from("direct:result-cache-copy")
+                        .to("ruby:resultCacheCopy?resultCacheSize=10&scriptId=result-cache-copy");
+            }
+        });
+
+        Exchange first = template.request("direct:result-cache-copy", e -> {
+            e.getMessage().setBody("a");
+            e.getMessage().setHeader("drop", "x");
+        });
+        // Modifying the result downstream must not change what later hits receive
+        Map<String, Object> firstBody = first.getMessage().getBody(Map.class);
+        firstBody.put("value", "changed");
+        first.getMessage().getHeader("items", List.class).add("changed");
+
+        Exchange second = template.request("direct:result-cache-copy", e -> {
+            e.getMessage().setBody("a");
+            e.getMessage().setHeader("drop", "x");
+        });
+
+        Map<?, ?> secondBody = second.getMessage().getBody(Map.class);
+        assertEquals("a", secondBody.get("value"));
+        assertEquals(List.of(1L, 2L), secondBody.get("list"));
+        assertEquals(List.of("a"), second.getMessage().getHeader("items"));
+        assertFalse(second.getMessage().getHeaders().containsKey("drop"));
+
+        // A miss and a hit return the same types
+        assertEquals(LinkedHashMap.class, first.getMessage().getBody().getClass());
+        assertEquals(LinkedHashMap.class, second.getMessage().getBody().getClass());
+        assertEquals(ArrayList.class, first.getMessage().getHeader("items").getClass());
+        assertEquals(ArrayList.class, second.getMessage().getHeader("items").getClass());
+    }
+
+    @Test
+    public void testResultCacheEvictsByWeight() {
+        RubyResultCache cache = new RubyResultCache(10, 0, 10);
+        RubyScript script = new RubyScript(null, "$body");
+        cache.put(script, "a", new RubyResultCache.Result("12345", Map.of(), Set.of()));
+        cache.put(script, "b", new RubyResultCache.Result("12345", Map.of(), Set.of()));
+        cache.get(script, "a");
+
+        cache.put(script, "c", new RubyResultCache.Result("123", Map.of(), Set.of()));
+        cache.put(script, "large", new RubyResultCache.Result("12345678901", Map.of(), Set.of()));
+
+        assertNotNull(cache.get(script, "a"));
+        assertNull(cache.get(script, "b"));
+        assertNull(cache.get(script, "large"));
+        assertEquals(8, cache.getWeight());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    public void testResultCacheExpires() {
+        AtomicLong clock = new AtomicLong();
+        RubyResultCache cache = new RubyResultCache(10, 1000, 0, clock::get);
+        RubyScript script = new RubyScript(null, "$body");
+        cache.put(script, "a", new RubyResultCache.Result("A", Map.of(), Set.of()));
+
+        clock.set(999);
+        assertNotNull(cache.get(script, "a"));
+        clock.set(1000);
+        assertNull(cache.get(script, "a"));
+        assertEquals(0, cache.size());
+    }
+
     @Override
     protected RouteBuilder createRouteBuilder() throws Exception {
         return new RouteBuilder() {
@@ -296,6 +616,18 @@ public class RubyComponentTest extends CamelTestSupport {
                 from("direct:headers-test")
                         .to("ruby:headers?scriptId=headers-test");
 
+                from("direct:helpers-binding")
+                        .to("ruby:helpersBinding?cacheScript=true&scriptId=helpers-binding");
+
+                from("seda:concurrent?concurrentConsumers=8")
+                        .to("ruby:concurrent?poolSize=4&cacheScript=true&scriptId=concurrent");
+
+                from("direct:cached")
+                        .to("ruby:cached?cacheScript=true&rubyScript=set_header('Seen', true); $body.to_s.upcase");
+
+                from("direct:cached-registry")
+                        .to("ruby:cachedRegistry?cacheScript=true&scriptId=cached-registry");
+
                 from("direct:invalid-script")
                         .to("ruby:invalid?scriptId=non-existent-script");
             }